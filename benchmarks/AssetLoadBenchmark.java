@@ -0,0 +1,62 @@
+package bricker.benchmarks;
+
+import bricker.main.BrickerGameManager;
+import bricker.main.HeadlessGameRunner;
+import bricker.utils.AssetCache;
+import danogl.gui.ImageReader;
+
+/**
+ * Compares the time a game spends loading its assets:
+ * <ul>
+ *   <li>before the asset cache: seven images and one sound read one after
+ *   the other, on every start and every reset;</li>
+ *   <li>first start with the cache: all of them decoded concurrently;</li>
+ *   <li>reset with the cache: no reads at all.</li>
+ * </ul>
+ * The headless readers stand in for disk I/O and decoding with a fixed delay
+ * per asset, so the numbers show the structure of the costs, not the
+ * decoding speed of real files.
+ * @author Elyashiv Eitan
+ */
+public class AssetLoadBenchmark
+{
+    private static final long READ_MILLIS = 20;
+    private static final int IMAGES = 7;
+    private static final int RESETS = 5;
+    private static final float DELTA_TIME = 1f / 60;
+    private static final double NANOS_IN_MILLI = 1e6;
+
+    /**
+     * Runs the benchmark and prints the asset loading times.
+     */
+    public static void main(String[] args)
+    {
+        System.setProperty("java.awt.headless", "true");
+        HeadlessGameRunner runner = new HeadlessGameRunner(7, 8, DELTA_TIME,
+                0);
+        runner.setAssetReadMillis(READ_MILLIS);
+
+        long start = System.nanoTime();
+        ImageReader imageReader = runner.getImageReader();
+        for (int i = 0; i < IMAGES; i++)
+        {
+            imageReader.readImage("asset" + i, false);
+        }
+        runner.getSoundReader().readSound("sound");
+        System.out.printf("sequential, every reset: %8.2f ms%n",
+                (System.nanoTime() - start) / NANOS_IN_MILLI);
+
+        AssetCache cache = BrickerGameManager.getAssetCache();
+        cache.clear();
+        System.out.printf("cached, first start:     %8.2f ms%n",
+                runner.startGame().getAssetLoadNanos() / NANOS_IN_MILLI);
+        long resetNanos = 0;
+        for (int i = 0; i < RESETS; i++)
+        {
+            resetNanos += runner.startGame().getAssetLoadNanos();
+        }
+        System.out.printf("cached, reset:           %8.2f ms%n",
+                resetNanos / NANOS_IN_MILLI / RESETS);
+        System.out.println("cache: " + cache);
+    }
+}
@@ -0,0 +1,103 @@
+package bricker.benchmarks;
+
+import bricker.gameobjects.AutopilotPaddle;
+import bricker.main.BrickerGameManager;
+import bricker.main.GameStats;
+import bricker.main.HeadlessGameRunner;
+
+/**
+ * Compares the autopilot paddle with a paddle steered towards the main ball,
+ * as the balance runner plays: plays the same seeded games headless with
+ * each and prints how the games end, how long they last in simulated time,
+ * the time per frame and, for the autopilot, how many predictions it
+ * computed per frame.
+ *
+ * Usage: {@code java bricker.benchmarks.AutopilotBenchmark [games
+ * [maxMinutes [endless]]]}, 50 games of at most 30 simulated minutes by
+ * default. In endless mode a game only ends when the paddle misses the main
+ * ball for the last time.
+ * @author Elyashiv Eitan
+ */
+public class AutopilotBenchmark
+{
+    private static final float DELTA_TIME = 1f / 60;
+    private static final long SEED = 42;
+    private static final int ROWS = 7;
+    private static final int COLS = 8;
+    private static final int DEFAULT_GAMES = 50;
+    private static final double DEFAULT_MAX_MINUTES = 30;
+    private static final double NANOS_IN_MICRO = 1e3;
+    private static final String ENDLESS_ARG = "endless";
+
+    /**
+     * Plays the games with each paddle and prints a line per paddle.
+     */
+    public static void main(String[] args)
+    {
+        System.setProperty("java.awt.headless", "true");
+        int games = args.length >= 1 ? Integer.parseInt(args[0]) :
+                DEFAULT_GAMES;
+        double maxMinutes = args.length >= 2 ? Double.parseDouble(args[1]) :
+                DEFAULT_MAX_MINUTES;
+        long maxFrames = (long) (maxMinutes * 60 / DELTA_TIME);
+        boolean endless = args.length >= 3 && ENDLESS_ARG.equals(args[2]);
+        System.out.printf("%-10s %5s %5s %8s %12s %9s %12s%n", "paddle",
+                "wins", "lost", "timeout", "mean min", "us/frame",
+                "predictions");
+        for (boolean autopilot : new boolean[] {false, true})
+        {
+            play(games, maxFrames, endless, autopilot);
+        }
+    }
+
+    /**
+     * Plays the games with one paddle and prints their results.
+     */
+    private static void play(int games, long maxFrames, boolean endless,
+                             boolean autopilot)
+    {
+        int[] outcomes = new int[GameStats.Outcome.values().length];
+        long frames = 0;
+        long predictions = 0;
+        long nanos = 0;
+        for (int i = 0; i < games; i++)
+        {
+            HeadlessGameRunner runner = new HeadlessGameRunner(ROWS, COLS,
+                    DELTA_TIME, SEED + i);
+            runner.setPlayAgain(false);
+            runner.setGameConfigurator(game ->
+            {
+                game.setAutopilot(autopilot);
+                game.setEndless(endless);
+            });
+            BrickerGameManager game = runner.startGame();
+            long start = System.nanoTime();
+            do
+            {
+                if (!autopilot)
+                {
+                    runner.followBall();
+                }
+            }
+            while (game.getStats().getFrames() < maxFrames && runner.step());
+            nanos += System.nanoTime() - start;
+            GameStats stats = game.getStats();
+            outcomes[stats.getOutcome().ordinal()]++;
+            frames += stats.getFrames();
+            if (autopilot)
+            {
+                predictions += ((AutopilotPaddle) game.getUserPaddle())
+                        .getPredictionCounter();
+            }
+        }
+        System.out.printf("%-10s %5d %5d %8d %12.1f %9.2f %12s%n",
+                autopilot ? "autopilot" : "follow",
+                outcomes[GameStats.Outcome.WON.ordinal()],
+                outcomes[GameStats.Outcome.LOST.ordinal()],
+                outcomes[GameStats.Outcome.RUNNING.ordinal()],
+                frames * DELTA_TIME / 60 / games,
+                nanos / NANOS_IN_MICRO / frames, autopilot ?
+                        String.format("%.3f/frame", predictions /
+                                (double) frames) : "-");
+    }
+}
@@ -0,0 +1,127 @@
+package bricker.benchmarks;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * A minimal JMH-style harness for benchmarks that must run from a plain
+ * classpath: warm-up iterations, then measured iterations of a fixed number
+ * of operations, each preceded by an untimed set-up. It reports the
+ * throughput and, like JMH's gc profiler ({@code gc.alloc.rate.norm}), the
+ * bytes allocated per operation on the benchmark thread.
+ * @author Elyashiv Eitan
+ */
+public class BenchmarkHarness
+{
+    private static final double NANOS_IN_SECOND = 1e9;
+
+    /**
+     * A benchmarked operation.
+     */
+    public interface Case
+    {
+        /**
+         * Prepares the state of one iteration. Not timed.
+         */
+        default void setUp()
+        {
+        }
+
+        /**
+         * Runs one operation.
+         *
+         * @return A result the harness consumes, so the JIT cannot drop the
+         * operation. May be null.
+         */
+        Object run();
+    }
+
+    private final int warmupIterations;
+    private final int measuredIterations;
+    private final String filter;
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean)
+                    ManagementFactory.getThreadMXBean();
+    private int sink;
+
+    /**
+     * Constructs a harness.
+     *
+     * @param warmupIterations   The number of iterations run before measuring.
+     * @param measuredIterations The number of measured iterations.
+     * @param filter             Only cases whose name contains it are run. Can
+     *                           be null to run every case.
+     */
+    public BenchmarkHarness(int warmupIterations, int measuredIterations,
+                            String filter)
+    {
+        this.warmupIterations = warmupIterations;
+        this.measuredIterations = measuredIterations;
+        this.filter = filter;
+        System.out.printf("%-44s %14s %14s %14s%n", "benchmark", "ops/s",
+                "min ops/s", "bytes/op");
+    }
+
+    /**
+     * Runs a case, unless it is filtered out, and prints its results.
+     *
+     * @param name       The case name.
+     * @param operations The number of operations in an iteration.
+     * @param benchmark  The case.
+     */
+    public void run(String name, int operations, Case benchmark)
+    {
+        if (this.filter != null && !name.contains(this.filter))
+        {
+            return;
+        }
+        long threadId = Thread.currentThread().getId();
+        for (int i = 0; i < this.warmupIterations; i++)
+        {
+            benchmark.setUp();
+            iterate(benchmark, operations);
+        }
+        long totalNanos = 0;
+        long totalBytes = 0;
+        double minThroughput = Double.MAX_VALUE;
+        for (int i = 0; i < this.measuredIterations; i++)
+        {
+            benchmark.setUp();
+            long bytes = this.threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            iterate(benchmark, operations);
+            long nanos = System.nanoTime() - start;
+            totalBytes += this.threads.getThreadAllocatedBytes(threadId) -
+                    bytes;
+            totalNanos += nanos;
+            minThroughput = Math.min(minThroughput,
+                    operations * NANOS_IN_SECOND / nanos);
+        }
+        long measuredOperations = (long) operations * this.measuredIterations;
+        System.out.printf("%-44s %14.1f %14.1f %14.1f%n", name,
+                measuredOperations * NANOS_IN_SECOND / totalNanos,
+                minThroughput, totalBytes / (double) measuredOperations);
+    }
+
+    /**
+     * Runs the operations of one iteration.
+     */
+    private void iterate(Case benchmark, int operations)
+    {
+        for (int i = 0; i < operations; i++)
+        {
+            Object result = benchmark.run();
+            if (result != null)
+            {
+                this.sink += System.identityHashCode(result) & 1;
+            }
+        }
+    }
+
+    /**
+     * @return A value derived from every result, so none of them is dead.
+     */
+    public int getSink()
+    {
+        return this.sink;
+    }
+}
@@ -0,0 +1,84 @@
+package bricker.benchmarks;
+
+import bricker.main.HeadlessGameRunner;
+import java.lang.management.ManagementFactory;
+
+/**
+ * A soak test of endless mode: plays a multi-hour session headless, with a
+ * paddle that follows the ball, and prints for every simulated quarter of an
+ * hour the rows streamed so far, the time and bytes allocated per frame, the
+ * slowest frame and the heap in use after a collection. In a healthy build
+ * all of them stay flat while the streamed rows keep growing.
+ *
+ * Usage: {@code java bricker.benchmarks.EndlessSoakBenchmark [hours [rows
+ * cols]]}, three hours of a 7x8 field by default.
+ * @author Elyashiv Eitan
+ */
+public class EndlessSoakBenchmark
+{
+    private static final float DELTA_TIME = 1f / 60;
+    private static final long SEED = 42;
+    private static final double DEFAULT_HOURS = 3;
+    private static final int DEFAULT_ROWS = 7;
+    private static final int DEFAULT_COLS = 8;
+    private static final int FRAMES_PER_REPORT = 15 * 60 * 60;
+    private static final double NANOS_IN_MICRO = 1e3;
+    private static final double BYTES_IN_MEGABYTE = 1 << 20;
+
+    /**
+     * Runs the session and prints a line per simulated quarter of an hour.
+     */
+    public static void main(String[] args)
+    {
+        System.setProperty("java.awt.headless", "true");
+        double hours = args.length >= 1 ? Double.parseDouble(args[0]) :
+                DEFAULT_HOURS;
+        int rows = args.length >= 3 ? Integer.parseInt(args[1]) :
+                DEFAULT_ROWS;
+        int cols = args.length >= 3 ? Integer.parseInt(args[2]) :
+                DEFAULT_COLS;
+        long frames = (long) (hours * 60 * 60 / DELTA_TIME);
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean)
+                        ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        Runtime runtime = Runtime.getRuntime();
+        HeadlessGameRunner runner = new HeadlessGameRunner(rows, cols,
+                DELTA_TIME, SEED);
+        runner.setGameConfigurator(game -> game.setEndless(true));
+        runner.startGame();
+
+        System.out.printf("%8s %10s %9s %11s %11s %11s %9s%n", "minutes",
+                "rows", "sessions", "us/frame", "max us", "bytes/frame",
+                "heap MB");
+        long frame = 0;
+        while (frame < frames)
+        {
+            long reportFrames = Math.min(FRAMES_PER_REPORT, frames - frame);
+            long maxNanos = 0;
+            long startBytes = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            for (long i = 0; i < reportFrames; i++)
+            {
+                runner.followBall();
+                long frameStart = System.nanoTime();
+                runner.step();
+                maxNanos = Math.max(maxNanos, System.nanoTime() - frameStart);
+            }
+            long nanos = System.nanoTime() - start;
+            long bytes = threads.getThreadAllocatedBytes(threadId) -
+                    startBytes;
+            frame += reportFrames;
+            System.gc();
+            System.out.printf("%8.0f %10d %9d %11.2f %11.1f %11.1f %9.2f%n",
+                    frame * DELTA_TIME / 60,
+                    runner.getGame().getRowsStreamed(),
+                    runner.getSessionCounter(),
+                    nanos / NANOS_IN_MICRO / reportFrames,
+                    maxNanos / NANOS_IN_MICRO, bytes / (double) reportFrames,
+                    (runtime.totalMemory() - runtime.freeMemory()) /
+                            BYTES_IN_MEGABYTE);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package bricker.benchmarks;
+
+import bricker.main.HeadlessGameRunner;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures how many bytes a steady-state headless frame allocates on the
+ * game thread, through {@code ThreadMXBean.getThreadAllocatedBytes}.
+ *
+ * The counts include the harness itself: every call into the stubbed input
+ * listener goes through a dynamic proxy, which allocates its argument array.
+ * The frames that allocate least are the ones where nothing collided, and
+ * those should come down to that harness overhead alone.
+ * @author Elyashiv Eitan
+ */
+public class FrameAllocationBenchmark
+{
+    private static final int WARMUP_FRAMES = 20_000;
+    private static final int MEASURED_FRAMES = 20_000;
+    private static final float DELTA_TIME = 1f / 60;
+
+    /**
+     * Runs the benchmark and prints the bytes allocated per frame.
+     */
+    public static void main(String[] args)
+    {
+        System.setProperty("java.awt.headless", "true");
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean)
+                        ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        HeadlessGameRunner runner = new HeadlessGameRunner(7, 8, DELTA_TIME);
+        runner.runFrames(WARMUP_FRAMES);
+
+        long total = 0;
+        long minimum = Long.MAX_VALUE;
+        long maximum = 0;
+        int zeroFrames = 0;
+        for (int frame = 0; frame < MEASURED_FRAMES; frame++)
+        {
+            long before = threads.getThreadAllocatedBytes(threadId);
+            runner.step();
+            long bytes = threads.getThreadAllocatedBytes(threadId) - before;
+            total += bytes;
+            minimum = Math.min(minimum, bytes);
+            maximum = Math.max(maximum, bytes);
+            if (bytes == 0)
+            {
+                zeroFrames++;
+            }
+        }
+        System.out.printf("%d frames: %.1f bytes/frame on average, " +
+                        "min %d, max %d, %d frames allocated nothing%n",
+                MEASURED_FRAMES, total / (double) MEASURED_FRAMES, minimum,
+                maximum, zeroFrames);
+    }
+}
@@ -0,0 +1,270 @@
+package bricker.benchmarks;
+
+import bricker.brick_strategies.AddLifeCollisionStrategy;
+import bricker.brick_strategies.BasicCollisionStrategy;
+import bricker.brick_strategies.CollisionStrategy;
+import bricker.brick_strategies.CollsionStrategyFactory;
+import bricker.brick_strategies.DoubleBehvaviorCollisionStrategy;
+import bricker.brick_strategies.MoreBallsCollisionStrategy;
+import bricker.brick_strategies.TemporaryPaddleCollisionStrategy;
+import bricker.brick_strategies.TurboCollisionStrategy;
+import bricker.main.BrickerGameManager;
+import bricker.main.HeadlessGameRunner;
+import danogl.GameObject;
+import danogl.util.Vector2;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+
+/**
+ * The regression suite of the core gameplay paths, run headless through
+ * {@link BenchmarkHarness}:
+ * <ul>
+ *   <li>starting a game (dominated by createBricks) at several grid sizes;</li>
+ *   <li>the in-place reset on "Play again" at the same grid sizes, with
+ *   eager and lazy strategies;</li>
+ *   <li>CollsionStrategyFactory.buildCollisionStrategy;</li>
+ *   <li>onCollision of each collision strategy;</li>
+ *   <li>a puck explosion: requesting 1, 100 and 1000 pucks at once and
+ *   applying the frame's commands;</li>
+ *   <li>a full update tick with 1, 100 and 1000 pucks;</li>
+ *   <li>an update tick, including cleanUpFallenObjects, after a long
+ *   session in which many pucks were spawned and fell off.</li>
+ * </ul>
+ * Usage: {@code java bricker.benchmarks.GameplayBenchmarks [name filter]}.
+ * @author Elyashiv Eitan
+ */
+public class GameplayBenchmarks
+{
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASURED_ITERATIONS = 5;
+    private static final float DELTA_TIME = 1f / 60;
+    private static final long SEED = 42;
+    private static final int[] GRID_SIZES = {8, 100, 300};
+    private static final int[] PUCK_COUNTS = {1, 100, 1000};
+    private static final int LONG_SESSION_FRAMES = 20_000;
+    private static final int RESET_SESSION_FRAMES = 600;
+    private static final int PUCKS_PER_SESSION_FRAME = 5;
+    private static final Vector2 CENTER = new Vector2(350, 250);
+
+    /**
+     * Runs every benchmark whose name contains the first argument, or all of
+     * them.
+     */
+    public static void main(String[] args)
+    {
+        System.setProperty("java.awt.headless", "true");
+        BenchmarkHarness harness = new BenchmarkHarness(WARMUP_ITERATIONS,
+                MEASURED_ITERATIONS, args.length > 0 ? args[0] : null);
+        startGame(harness);
+        warmReset(harness);
+        buildCollisionStrategy(harness);
+        onCollision(harness);
+        createPucks(harness);
+        updateTick(harness);
+        updateAfterLongSession(harness);
+        if (harness.getSink() < 0)
+        {
+            System.out.println(harness.getSink());
+        }
+    }
+
+    /**
+     * Starting a game of each grid size.
+     */
+    private static void startGame(BenchmarkHarness harness)
+    {
+        for (int size : GRID_SIZES)
+        {
+            HeadlessGameRunner runner = new HeadlessGameRunner(size, size,
+                    DELTA_TIME, SEED);
+            harness.run("startGame " + size + "x" + size, 5, runner::startGame);
+        }
+    }
+
+    /**
+     * Resetting a game in place, after a short session broke some bricks.
+     */
+    private static void warmReset(BenchmarkHarness harness)
+    {
+        for (int size : GRID_SIZES)
+        {
+            for (boolean lazy : new boolean[] {false, true})
+            {
+                HeadlessGameRunner runner = new HeadlessGameRunner(size, size,
+                        DELTA_TIME, SEED);
+                runner.setGameConfigurator(game ->
+                        game.setLazyStrategies(lazy));
+                harness.run("warmReset " + size + "x" + size +
+                        (lazy ? " lazy" : ""), 1, new BenchmarkHarness.Case()
+                {
+                    @Override
+                    public void setUp()
+                    {
+                        runner.startGame();
+                        runner.runFrames(RESET_SESSION_FRAMES);
+                    }
+
+                    @Override
+                    public Object run()
+                    {
+                        runner.getGame().warmReset();
+                        return null;
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Drawing brick strategies with the default weights.
+     */
+    private static void buildCollisionStrategy(BenchmarkHarness harness)
+    {
+        CollsionStrategyFactory factory = new CollsionStrategyFactory(null,
+                new SplittableRandom(SEED));
+        harness.run("buildCollisionStrategy", 100_000,
+                factory::buildCollisionStrategy);
+    }
+
+    /**
+     * Each strategy hit by a ball in the middle of a fresh game.
+     */
+    private static void onCollision(BenchmarkHarness harness)
+    {
+        onCollision(harness, "Basic", game -> new BasicCollisionStrategy());
+        onCollision(harness, "MoreBalls", MoreBallsCollisionStrategy::new);
+        onCollision(harness, "AddLife", AddLifeCollisionStrategy::new);
+        onCollision(harness, "TemporaryPaddle",
+                TemporaryPaddleCollisionStrategy::new);
+        onCollision(harness, "Turbo", TurboCollisionStrategy::new);
+        onCollision(harness, "DoubleBehavior", game ->
+                new DoubleBehvaviorCollisionStrategy(
+                        new MoreBallsCollisionStrategy(game),
+                        new AddLifeCollisionStrategy(game)));
+    }
+
+    /**
+     * One strategy hit by a ball in the middle of a fresh game.
+     */
+    private static void onCollision(BenchmarkHarness harness, String name,
+                                    Function<BrickerGameManager,
+                                            CollisionStrategy> strategy)
+    {
+        HeadlessGameRunner runner = new HeadlessGameRunner(7, 8, DELTA_TIME,
+                SEED);
+        GameObject brick = new GameObject(CENTER, new Vector2(10, 10), null);
+        GameObject ball = new GameObject(CENTER, new Vector2(10, 10), null);
+        CollisionStrategy[] current = new CollisionStrategy[1];
+        harness.run("onCollision " + name, 1_000, new BenchmarkHarness.Case()
+        {
+            @Override
+            public void setUp()
+            {
+                current[0] = strategy.apply(runner.startGame());
+            }
+
+            @Override
+            public Object run()
+            {
+                current[0].onCollision(brick, ball);
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Requesting pucks at one spot and adding them to the game in one batch.
+     */
+    private static void createPucks(BenchmarkHarness harness)
+    {
+        for (int pucks : PUCK_COUNTS)
+        {
+            HeadlessGameRunner runner = new HeadlessGameRunner(7, 8,
+                    DELTA_TIME, SEED);
+            harness.run("createPucks " + pucks, 1, new BenchmarkHarness.Case()
+            {
+                @Override
+                public void setUp()
+                {
+                    runner.startGame();
+                }
+
+                @Override
+                public Object run()
+                {
+                    BrickerGameManager game = runner.getGame();
+                    game.createPucks(CENTER, pucks);
+                    game.applyCommands();
+                    return null;
+                }
+            });
+        }
+    }
+
+    /**
+     * Full update ticks right after spawning pucks.
+     */
+    private static void updateTick(BenchmarkHarness harness)
+    {
+        for (int pucks : PUCK_COUNTS)
+        {
+            HeadlessGameRunner runner = new HeadlessGameRunner(7, 8,
+                    DELTA_TIME, SEED);
+            harness.run("update " + pucks + " pucks", 60,
+                    new BenchmarkHarness.Case()
+            {
+                @Override
+                public void setUp()
+                {
+                    BrickerGameManager game = runner.startGame();
+                    for (int i = 0; i < pucks; i++)
+                    {
+                        game.createPuck(CENTER);
+                    }
+                }
+
+                @Override
+                public Object run()
+                {
+                    runner.step();
+                    return null;
+                }
+            });
+        }
+    }
+
+    /**
+     * Update ticks after a long session in which pucks kept being spawned
+     * and falling off the screen.
+     */
+    private static void updateAfterLongSession(BenchmarkHarness harness)
+    {
+        HeadlessGameRunner runner = new HeadlessGameRunner(7, 8, DELTA_TIME,
+                SEED);
+        harness.run("update after long session", 1_000,
+                new BenchmarkHarness.Case()
+        {
+            @Override
+            public void setUp()
+            {
+                BrickerGameManager game = runner.startGame();
+                for (int frame = 0; frame < LONG_SESSION_FRAMES &&
+                        runner.getGame() == game; frame++)
+                {
+                    for (int i = 0; i < PUCKS_PER_SESSION_FRAME; i++)
+                    {
+                        game.createPuck(CENTER);
+                    }
+                    runner.step();
+                }
+            }
+
+            @Override
+            public Object run()
+            {
+                runner.step();
+                return null;
+            }
+        });
+    }
+}
@@ -0,0 +1,66 @@
+package bricker.benchmarks;
+
+import bricker.main.InputRecorder;
+import bricker.main.InputReplay;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Measures the cost of recording and replaying the input of a frame, with
+ * the keys changing every few frames as in a real game, and the size of the
+ * resulting log.
+ * @author Elyashiv Eitan
+ */
+public class InputRecordBenchmark
+{
+    private static final int FRAMES = 2_000_000;
+    private static final int FRAMES_PER_KEY_CHANGE = 20;
+    private static final float DELTA_TIME = 1f / 60;
+
+    /**
+     * Runs the benchmark twice, the first run as warm-up, and prints the
+     * time per frame.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        Path path = Files.createTempFile("bricker-input", ".log");
+        try
+        {
+            for (int round = 0; round < 2; round++)
+            {
+                long start = System.nanoTime();
+                try (InputRecorder recorder = new InputRecorder(path, 0, 7, 8,
+                        false, false, false, false))
+                {
+                    for (int frame = 0; frame < FRAMES; frame++)
+                    {
+                        recorder.record(frame / FRAMES_PER_KEY_CHANGE % 3,
+                                DELTA_TIME);
+                    }
+                }
+                long recordNanos = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                long replayed = 0;
+                try (InputReplay replay = new InputReplay(path))
+                {
+                    while (replay.nextFrame())
+                    {
+                        replayed += replay.getKeyMask();
+                    }
+                }
+                long replayNanos = System.nanoTime() - start;
+                System.out.printf("record %.1f ns/frame, replay %.1f " +
+                                "ns/frame, log %d bytes (%d)%n",
+                        recordNanos / (double) FRAMES,
+                        replayNanos / (double) FRAMES, Files.size(path),
+                        replayed);
+            }
+        }
+        finally
+        {
+            Files.delete(path);
+        }
+    }
+}
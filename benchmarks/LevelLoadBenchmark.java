@@ -0,0 +1,139 @@
+package bricker.benchmarks;
+
+import bricker.main.HeadlessGameRunner;
+import bricker.main.Level;
+import bricker.main.LevelConverter;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ * Measures the cost of large level files (500x500, 1000x1000 and 2000x2000
+ * bricks): converting the text format once, mapping the binary file, and
+ * starting a game laid out from the mapped level compared to a game that
+ * fills every cell.
+ * @author Elyashiv Eitan
+ */
+public class LevelLoadBenchmark
+{
+    private static final int[] GRID_SIZES = {500, 1000, 2000};
+    private static final int ROUNDS = 8;
+    private static final float DELTA_TIME = 1f / 60;
+    private static final long SEED = 42;
+    private static final String BRICKS = "..##BBBMLPT";
+    private static final double NANOS_IN_MILLI = 1e6;
+    private static final double BYTES_IN_MEGABYTE = 1 << 20;
+
+    /**
+     * Runs the benchmark and prints the costs of each grid size, averaged
+     * over the rounds after a warm-up round.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        System.setProperty("java.awt.headless", "true");
+        Path directory = Files.createTempDirectory("levels");
+        try
+        {
+            for (int size : GRID_SIZES)
+            {
+                measure(directory, size);
+            }
+        }
+        finally
+        {
+            try (DirectoryStream<Path> paths =
+                         Files.newDirectoryStream(directory))
+            {
+                for (Path path : paths)
+                {
+                    Files.delete(path);
+                }
+            }
+            Files.delete(directory);
+        }
+    }
+
+    /**
+     * Writes a random level of one size and prints its costs.
+     */
+    private static void measure(Path directory, int size) throws IOException
+    {
+        Path text = directory.resolve(size + ".txt");
+        Path binary = directory.resolve(size + ".lvl");
+        writeText(text, size);
+        long start = System.nanoTime();
+        LevelConverter.convert(text, binary);
+        long convertNanos = System.nanoTime() - start;
+
+        long openNanos = 0;
+        for (int round = 0; round <= ROUNDS; round++)
+        {
+            start = System.nanoTime();
+            Level.open(binary);
+            if (round > 0)
+            {
+                openNanos += System.nanoTime() - start;
+            }
+        }
+        Level level = Level.open(binary);
+        double levelMillis = startGames(size, level);
+        double filledMillis = startGames(size, null);
+        System.out.printf("%dx%d: text %.1f MB converted in %.1f ms, " +
+                        "level %.1f MB mapped in %.3f ms, start %.2f ms " +
+                        "(filled grid %.2f ms)%n", size, size,
+                Files.size(text) / BYTES_IN_MEGABYTE,
+                convertNanos / NANOS_IN_MILLI,
+                Files.size(binary) / BYTES_IN_MEGABYTE,
+                openNanos / NANOS_IN_MILLI / ROUNDS, levelMillis,
+                filledMillis);
+    }
+
+    /**
+     * @return The average time to start a game, in milliseconds.
+     */
+    private static double startGames(int size, Level level)
+    {
+        HeadlessGameRunner runner = new HeadlessGameRunner(size, size,
+                DELTA_TIME, SEED);
+        runner.setGameConfigurator(game -> game.setLevel(level));
+        long nanos = 0;
+        for (int round = 0; round <= ROUNDS; round++)
+        {
+            long start = System.nanoTime();
+            runner.startGame();
+            if (round > 0)
+            {
+                nanos += System.nanoTime() - start;
+            }
+        }
+        return nanos / NANOS_IN_MILLI / ROUNDS;
+    }
+
+    /**
+     * Writes a level of random bricks in the text format.
+     */
+    private static void writeText(Path text, int size) throws IOException
+    {
+        SplittableRandom random = new SplittableRandom(size);
+        char[] row = new char[size];
+        try (BufferedWriter writer = Files.newBufferedWriter(text))
+        {
+            writer.write("; A random " + size + "x" + size + " level");
+            writer.newLine();
+            for (int i = 0; i < size; i++)
+            {
+                for (int col = 0; col < size; col++)
+                {
+                    row[col] = BRICKS.charAt(random.nextInt(BRICKS.length()));
+                }
+                // End each row with a brick, so the level is size columns wide
+                row[size - 1] = '#';
+                writer.write(row);
+                writer.newLine();
+            }
+        }
+    }
+}
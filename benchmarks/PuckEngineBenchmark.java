@@ -0,0 +1,124 @@
+package bricker.benchmarks;
+
+import bricker.gameobjects.PuckKernel;
+import bricker.gameobjects.PuckEngine;
+import bricker.gameobjects.ScalarPuckKernel;
+import bricker.main.HeadlessGameRunner;
+import danogl.util.Vector2;
+import java.util.SplittableRandom;
+
+/**
+ * Compares the ways pucks can be simulated, at 1k and 10k pucks:
+ * <ul>
+ *   <li>kernel: the bulk integrate, wall and paddle passes alone, with the
+ *   scalar kernel and with the kernel picked for this JVM (the Vector API
+ *   kernel when run with {@code --add-modules jdk.incubator.vector});</li>
+ *   <li>game: whole headless frames, with one Ball game object per puck and
+ *   with the puck engine.</li>
+ * </ul>
+ * @author Elyashiv Eitan
+ */
+public class PuckEngineBenchmark
+{
+    private static final int[] PUCK_COUNTS = {1_000, 10_000};
+    private static final int KERNEL_FRAMES = 20_000;
+    private static final int GAME_FRAMES = 30;
+    private static final int GAME_ROUNDS = 5;
+    private static final float DELTA_TIME = 1f / 60;
+    private static final float WIDTH = 1000;
+    private static final float HEIGHT = 700;
+    private static final float PUCK_SIZE = 15;
+    private static final float SPEED = 200;
+
+    /**
+     * Runs the benchmark and prints the time per frame of every variant.
+     */
+    public static void main(String[] args)
+    {
+        System.setProperty("java.awt.headless", "true");
+        PuckKernel preferred = PuckEngine.createKernel();
+        for (int pucks : PUCK_COUNTS)
+        {
+            System.out.printf("%d pucks%n", pucks);
+            System.out.printf("  kernel %-18s %10.0f ns/frame%n",
+                    "ScalarPuckKernel", kernelNanos(new ScalarPuckKernel(),
+                            pucks));
+            System.out.printf("  kernel %-18s %10.0f ns/frame%n",
+                    preferred.getClass().getSimpleName(),
+                    kernelNanos(preferred, pucks));
+            System.out.printf("  game   %-18s %10.0f ns/frame%n",
+                    "Ball objects", gameNanos(false, pucks));
+            System.out.printf("  game   %-18s %10.0f ns/frame%n",
+                    "PuckEngine", gameNanos(true, pucks));
+        }
+    }
+
+    /**
+     * Times the bulk kernel passes over randomly placed pucks.
+     */
+    private static double kernelNanos(PuckKernel kernel, int pucks)
+    {
+        SplittableRandom random = new SplittableRandom(pucks);
+        float[] x = new float[pucks];
+        float[] y = new float[pucks];
+        float[] vx = new float[pucks];
+        float[] vy = new float[pucks];
+        for (int i = 0; i < pucks; i++)
+        {
+            x[i] = (float) random.nextDouble(WIDTH - PUCK_SIZE);
+            y[i] = (float) random.nextDouble(HEIGHT - PUCK_SIZE);
+            vx[i] = (float) random.nextDouble(-SPEED, SPEED);
+            vy[i] = (float) random.nextDouble(-SPEED, SPEED);
+        }
+        long bounces = 0;
+        long start = 0;
+        for (int frame = -KERNEL_FRAMES; frame < KERNEL_FRAMES; frame++)
+        {
+            // The first half warms up the JIT
+            if (frame == 0)
+            {
+                start = System.nanoTime();
+            }
+            kernel.integrate(x, y, vx, vy, pucks, DELTA_TIME);
+            bounces += kernel.bounceWalls(x, y, vx, vy, pucks, 0,
+                    WIDTH - PUCK_SIZE, 0);
+            bounces += kernel.bouncePaddle(x, y, vy, pucks, PUCK_SIZE, 450,
+                    660, 550, 680);
+            // Keep the pucks on screen
+            bounces += kernel.bounceWalls(y, x, vy, vx, pucks, 0,
+                    HEIGHT - PUCK_SIZE, 0);
+        }
+        long nanos = System.nanoTime() - start;
+        if (bounces < 0)
+        {
+            System.out.println(bounces);
+        }
+        return nanos / (double) KERNEL_FRAMES;
+    }
+
+    /**
+     * Times whole headless frames right after spawning the pucks in the
+     * middle of the window, before they start to fall off the screen.
+     */
+    private static double gameNanos(boolean puckEngine, int pucks)
+    {
+        long nanos = 0;
+        for (int round = 0; round < GAME_ROUNDS; round++)
+        {
+            HeadlessGameRunner runner = new HeadlessGameRunner(7, 8,
+                    DELTA_TIME);
+            runner.setGameConfigurator(game ->
+                    game.setPuckEngineEnabled(puckEngine));
+            runner.step();
+            Vector2 center = new Vector2(WIDTH / 2, HEIGHT / 2);
+            for (int i = 0; i < pucks; i++)
+            {
+                runner.getGame().createPuck(center);
+            }
+            long start = System.nanoTime();
+            runner.runFrames(GAME_FRAMES);
+            nanos += System.nanoTime() - start;
+        }
+        return nanos / (double) (GAME_ROUNDS * GAME_FRAMES);
+    }
+}
@@ -0,0 +1,65 @@
+package bricker.benchmarks;
+
+import bricker.main.HeadlessGameRunner;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Compares the time and memory it takes to start a game on large grids
+ * (100x100, 500x500 and 1000x1000 bricks) when every brick's strategy is
+ * drawn during the layout and when strategies are drawn lazily on first hit.
+ * @author Elyashiv Eitan
+ */
+public class StartupBenchmark
+{
+    private static final int[] GRID_SIZES = {100, 500, 1000};
+    private static final int ROUNDS = 8;
+    private static final float DELTA_TIME = 1f / 60;
+    private static final double NANOS_IN_MILLI = 1e6;
+    private static final double BYTES_IN_MEGABYTE = 1 << 20;
+
+    /**
+     * Runs the benchmark and prints the average startup time and memory of
+     * each variant, skipping the first round as warm-up.
+     */
+    public static void main(String[] args)
+    {
+        System.setProperty("java.awt.headless", "true");
+        for (int size : GRID_SIZES)
+        {
+            for (boolean lazy : new boolean[] {false, true})
+            {
+                measure(size, lazy);
+            }
+        }
+    }
+
+    /**
+     * Starts games of one grid size and prints the average startup cost.
+     */
+    private static void measure(int size, boolean lazy)
+    {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean)
+                        ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        HeadlessGameRunner runner = new HeadlessGameRunner(size, size,
+                DELTA_TIME, size);
+        runner.setGameConfigurator(game -> game.setLazyStrategies(lazy));
+        long nanos = 0;
+        long bytes = 0;
+        for (int round = 0; round <= ROUNDS; round++)
+        {
+            long startBytes = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            runner.startGame();
+            if (round > 0)
+            {
+                nanos += System.nanoTime() - start;
+                bytes += threads.getThreadAllocatedBytes(threadId) - startBytes;
+            }
+        }
+        System.out.printf("%dx%d %-5s %8.2f ms %8.2f MB%n", size, size,
+                lazy ? "lazy" : "eager", nanos / NANOS_IN_MILLI / ROUNDS,
+                bytes / BYTES_IN_MEGABYTE / ROUNDS);
+    }
+}
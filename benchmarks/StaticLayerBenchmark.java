@@ -0,0 +1,133 @@
+package bricker.benchmarks;
+
+import bricker.gameobjects.BrickField;
+import bricker.gameobjects.StaticLayer;
+import danogl.GameObject;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * Compares the software rendering cost of the background and the brick field
+ * per frame, for growing brick counts: drawing the background and every brick
+ * separately (as when every brick was a game object) against blitting the
+ * static layer, with one brick removed every few frames.
+ * @author Elyashiv Eitan
+ */
+public class StaticLayerBenchmark
+{
+    private static final int[] GRID_SIZES = {8, 32, 100};
+    private static final int FRAMES = 300;
+    private static final int FRAMES_PER_REMOVAL = 10;
+    private static final int WIDTH = 700;
+    private static final int HEIGHT = 500;
+    private static final float GAP = 1;
+    private static final double NANOS_IN_MICRO = 1e3;
+
+    /**
+     * Runs the benchmark and prints the time per frame of both approaches.
+     */
+    public static void main(String[] args)
+    {
+        System.setProperty("java.awt.headless", "true");
+        BufferedImage screen = new BufferedImage(WIDTH, HEIGHT,
+                BufferedImage.TYPE_INT_RGB);
+        Renderable background = new FillRenderable(Color.DARK_GRAY);
+        Renderable brickImage = new FillRenderable(Color.ORANGE);
+        Vector2 window = new Vector2(WIDTH, HEIGHT);
+        for (int size : GRID_SIZES)
+        {
+            for (int round = 0; round < 2; round++)
+            {
+                // The first round warms up the JIT
+                double separate = measure(screen, window, size, background,
+                        brickImage, false);
+                double layer = measure(screen, window, size, background,
+                        brickImage, true);
+                if (round == 1)
+                {
+                    System.out.printf("%dx%d bricks: separate %9.1f us/frame," +
+                                    " static layer %7.1f us/frame%n", size,
+                            size, separate, layer);
+                }
+            }
+        }
+    }
+
+    /**
+     * Renders frames of a fresh brick field and returns the time per frame.
+     */
+    private static double measure(BufferedImage screen, Vector2 window,
+                                  int size, Renderable background,
+                                  Renderable brickImage, boolean staticLayer)
+    {
+        float brickWidth = (WIDTH - GAP * size) / size;
+        float brickHeight = (HEIGHT / 2f - GAP * size) / size;
+        Vector2 brickSize = new Vector2(brickWidth, brickHeight);
+        BrickField field = new BrickField(size, size, Vector2.ZERO,
+                brickSize, GAP);
+        field.fill((brick, other) -> { });
+        StaticLayer layer = new StaticLayer(window, background, brickImage,
+                field);
+        field.setRemovalListener(layer::invalidate);
+        GameObject hitter = new GameObject(Vector2.ZERO, Vector2.ONES, null);
+
+        Graphics2D g = screen.createGraphics();
+        int removed = 0;
+        long start = System.nanoTime();
+        for (int frame = 0; frame < FRAMES; frame++)
+        {
+            if (frame % FRAMES_PER_REMOVAL == 0 && removed < size * size)
+            {
+                field.hit(removed++, hitter);
+                field.applyHits();
+            }
+            if (staticLayer)
+            {
+                layer.renderer().getRenderable().render(g, Vector2.ZERO,
+                        window, 0, false, false, 1);
+                continue;
+            }
+            background.render(g, Vector2.ZERO, window, 0, false, false, 1);
+            for (int cell = field.nextAlive(0); cell >= 0;
+                 cell = field.nextAlive(cell + 1))
+            {
+                brickImage.render(g, new Vector2(field.cellLeft(cell),
+                        field.cellTop(cell)), brickSize, 0, false, false, 1);
+            }
+        }
+        long nanos = System.nanoTime() - start;
+        g.dispose();
+        return nanos / NANOS_IN_MICRO / FRAMES;
+    }
+
+    /**
+     * Stands in for an image by filling its rectangle with a color.
+     */
+    private static class FillRenderable implements Renderable
+    {
+        private final Color color;
+
+        /**
+         * @param color the fill color.
+         */
+        FillRenderable(Color color)
+        {
+            this.color = color;
+        }
+
+        @Override
+        public void render(Graphics2D g, Vector2 topLeftCorner,
+                           Vector2 dimensions, double degreesCounterClockwise,
+                           boolean isFlippedHorizontally,
+                           boolean isFlippedVertically, double opaqueness)
+        {
+            g.setColor(this.color);
+            g.fillRect(Math.round(topLeftCorner.x()),
+                    Math.round(topLeftCorner.y()), Math.round(dimensions.x()),
+                    Math.round(dimensions.y()));
+        }
+    }
+}
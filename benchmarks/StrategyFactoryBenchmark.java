@@ -0,0 +1,98 @@
+package bricker.benchmarks;
+
+import bricker.brick_strategies.CollisionStrategy;
+import bricker.brick_strategies.CollsionStrategyFactory;
+import bricker.brick_strategies.DoubleBehvaviorCollisionStrategy;
+import bricker.brick_strategies.StrategyType;
+import java.lang.management.ManagementFactory;
+import java.util.IdentityHashMap;
+import java.util.SplittableRandom;
+
+/**
+ * Draws the strategies of a large brick field and reports the time and
+ * memory per brick, how many distinct strategy objects the field shares,
+ * and the drawn share of each strategy kind against the weight table.
+ * The strategies are never run, so no game manager is needed.
+ * @author Elyashiv Eitan
+ */
+public class StrategyFactoryBenchmark
+{
+    private static final int BRICKS = 500 * 500;
+    private static final int ROUNDS = 10;
+    private static final long SEED = 42;
+
+    /**
+     * Runs the benchmark and prints its results.
+     */
+    public static void main(String[] args)
+    {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean)
+                        ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        CollisionStrategy[] field = new CollisionStrategy[BRICKS];
+        for (int round = 0; round < ROUNDS; round++)
+        {
+            long bytes = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            CollsionStrategyFactory factory = new CollsionStrategyFactory(null,
+                    new SplittableRandom(SEED + round));
+            for (int i = 0; i < BRICKS; i++)
+            {
+                field[i] = factory.buildCollisionStrategy();
+            }
+            long nanos = System.nanoTime() - start;
+            bytes = threads.getThreadAllocatedBytes(threadId) - bytes;
+            System.out.printf("round %d: %.1f ns/brick, %.2f bytes/brick, " +
+                            "%d double chains%n", round, nanos / (double) BRICKS,
+                    bytes / (double) BRICKS, factory.getChainCounter());
+        }
+
+        IdentityHashMap<CollisionStrategy, Boolean> distinct =
+                new IdentityHashMap<>();
+        int[] counts = new int[StrategyType.values().length];
+        for (CollisionStrategy strategy : field)
+        {
+            distinct.put(strategy, true);
+            counts[typeOf(strategy)]++;
+        }
+        System.out.printf("%d bricks share %d strategy objects%n", BRICKS,
+                distinct.size());
+        double total = 0;
+        for (StrategyType type : StrategyType.values())
+        {
+            total += type.getDefaultWeight();
+        }
+        for (StrategyType type : StrategyType.values())
+        {
+            System.out.printf("  %-16s drawn %.4f expected %.4f%n", type,
+                    counts[type.ordinal()] / (double) BRICKS,
+                    type.getDefaultWeight() / total);
+        }
+    }
+
+    /**
+     * @return The ordinal of the kind of a drawn strategy.
+     */
+    private static int typeOf(CollisionStrategy strategy)
+    {
+        if (strategy instanceof DoubleBehvaviorCollisionStrategy)
+        {
+            return StrategyType.DOUBLE.ordinal();
+        }
+        String name = strategy.getClass().getSimpleName();
+        switch (name)
+        {
+            case "BasicCollisionStrategy":
+                return StrategyType.BASIC.ordinal();
+            case "MoreBallsCollisionStrategy":
+                return StrategyType.MORE_BALLS.ordinal();
+            case "AddLifeCollisionStrategy":
+                return StrategyType.ADD_LIFE.ordinal();
+            case "TemporaryPaddleCollisionStrategy":
+                return StrategyType.TEMPORARY_PADDLE.ordinal();
+            default:
+                return StrategyType.TURBO.ordinal();
+        }
+    }
+}
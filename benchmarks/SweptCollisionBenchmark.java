@@ -0,0 +1,113 @@
+package bricker.benchmarks;
+
+import bricker.gameobjects.SweptCollision;
+import java.util.SplittableRandom;
+
+/**
+ * Compares the discrete overlap test with the swept collision test as the
+ * ball's speed grows. A ball is fired at a single 15px brick row from random
+ * positions and angles; the benchmark reports the fraction of shots whose hit
+ * each test detects and the time per test.
+ * The discrete test misses more and more hits once the ball moves further
+ * than a brick's height in one frame, while the swept test keeps all of them.
+ * @author Elyashiv Eitan
+ */
+public class SweptCollisionBenchmark
+{
+    private static final float BALL_SIZE = 20;
+    private static final float BRICK_TOP = 300;
+    private static final float BRICK_HEIGHT = 15;
+    private static final float BRICK_LEFT = 0;
+    private static final float BRICK_RIGHT = 1000;
+    private static final float START_Y = 100;
+    private static final float END_Y = 600;
+    private static final float MAX_ANGLE = 0.6f;
+    private static final int SHOTS = 20_000;
+    private static final float[] SPEEDS = {200, 400, 800, 1600, 3200, 6400,
+            12800};
+    private static final float[] DELTA_TIMES = {1f / 120, 1f / 60, 1f / 30};
+
+    /**
+     * Runs the benchmark and prints one line per speed and time step.
+     */
+    public static void main(String[] args)
+    {
+        System.out.println("dt        speed   discrete  swept   ns/discrete" +
+                " ns/swept");
+        for (float deltaTime : DELTA_TIMES)
+        {
+            for (float speed : SPEEDS)
+            {
+                SplittableRandom random = new SplittableRandom((long) speed);
+                long discreteNanos = 0;
+                long sweptNanos = 0;
+                int discreteHits = 0;
+                int sweptHits = 0;
+                for (int shot = 0; shot < SHOTS; shot++)
+                {
+                    float x = (float) random.nextDouble(BRICK_LEFT,
+                            BRICK_RIGHT - BALL_SIZE);
+                    float angle = (float) random.nextDouble(-MAX_ANGLE,
+                            MAX_ANGLE);
+                    float dx = (float) Math.sin(angle) * speed * deltaTime;
+                    float dy = (float) Math.cos(angle) * speed * deltaTime;
+
+                    long start = System.nanoTime();
+                    discreteHits += shootDiscrete(x, dx, dy) ? 1 : 0;
+                    long middle = System.nanoTime();
+                    sweptHits += shootSwept(x, dx, dy) ? 1 : 0;
+                    long end = System.nanoTime();
+                    discreteNanos += middle - start;
+                    sweptNanos += end - middle;
+                }
+                System.out.printf("1/%-6.0f %-7.0f %-9.3f %-7.3f %-11.0f" +
+                                " %.0f%n", 1 / deltaTime, speed,
+                        discreteHits / (double) SHOTS,
+                        sweptHits / (double) SHOTS,
+                        discreteNanos / (double) SHOTS,
+                        sweptNanos / (double) SHOTS);
+            }
+        }
+    }
+
+    /**
+     * Moves the ball frame by frame and checks for an overlap after each move.
+     */
+    private static boolean shootDiscrete(float x, float dx, float dy)
+    {
+        float y = START_Y;
+        while (y < END_Y)
+        {
+            x += dx;
+            y += dy;
+            if (y + BALL_SIZE > BRICK_TOP && y < BRICK_TOP + BRICK_HEIGHT &&
+                    x + BALL_SIZE > BRICK_LEFT && x < BRICK_RIGHT)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Moves the ball frame by frame and sweeps each move against the brick.
+     */
+    private static boolean shootSwept(float x, float dx, float dy)
+    {
+        SweptCollision sweptCollision = new SweptCollision();
+        float y = START_Y;
+        while (y < END_Y)
+        {
+            sweptCollision.reset();
+            if (sweptCollision.sweep(x, y, BALL_SIZE, BALL_SIZE, dx, dy,
+                    BRICK_LEFT, BRICK_TOP, BRICK_RIGHT,
+                    BRICK_TOP + BRICK_HEIGHT))
+            {
+                return true;
+            }
+            x += dx;
+            y += dy;
+        }
+        return false;
+    }
+}
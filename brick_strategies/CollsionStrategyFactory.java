@@ -1,94 +1,275 @@
 package bricker.brick_strategies;
 
 import bricker.main.BrickerGameManager;
-import java.util.Random;
+import bricker.utils.AliasSampler;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
 
 /**
- * Factory class responsible for creating various collision strategies based on
- * the current game state. The factory can generate strategies for basic,
- * temporary paddles, turbo modes, and more, with a special rule for
- * double behavior strategies.
+ * Factory class responsible for creating the collision strategies of the
+ * bricks. Strategies are drawn from a weight table (see {@link StrategyTable})
+ * with an alias sampler, in O(1) per draw.
+ *
+ * Every strategy kind is stateless, so the factory shares one instance of
+ * each between all of its bricks. A double behavior is composed when the
+ * brick is built, as a flat chain of at most three behaviors: its first
+ * behavior may itself be double once, its other behaviors never are. Equal
+ * chains are shared too.
+ *
+ * Every strategy the factory hands out has a small id, stable across games
+ * and versions of the factory as long as {@link StrategyType} keeps its
+ * order, so the strategies of a saved game can be stored and rebuilt. A
+ * single strategy's id is its type's ordinal, a chain's id encodes its
+ * length and types.
  * @author Elyashiv Eitan
  */
 public class CollsionStrategyFactory
 {
     // Final definition
-    private final int TWO = 2;
-    private final int FOUR = 4;
-    private final int FIVE = 5;
-    private final int SIX = 6;
-    private final int SEVEN = 7;
-    private final int EIGHT = 8;
-    private final int NINE = 9;
-    private final int TEN = 10;
-    private BrickerGameManager brickerGameManager;
-    private Random rand;
-    private int strategyRand;
+    private static final int MAX_CHAIN_LENGTH = 3;
+    private static final int DOUBLE = StrategyType.DOUBLE.ordinal();
+    private static final int TYPE_COUNTER = StrategyType.values().length;
+    private final SplittableRandom rand;
+    private final AliasSampler strategySampler;
+    private final AliasSampler singleStrategySampler;
+    private final CollisionStrategy[] strategies;
+    private final Map<Integer, CollisionStrategy> chains = new HashMap<>();
+    private final Map<CollisionStrategy, Integer> chainIds =
+            new IdentityHashMap<>();
+    private final int[] chainTypes = new int[MAX_CHAIN_LENGTH];
 
 
+    /**
+     * Constructor for CollsionStrategyFactory, drawing strategies with the
+     * default weights.
+     *
+     * @param brickerGameManager The game manager instance responsible for managing
+     *                           the state of the game.
+     * @param rand               The stream the strategies are drawn from, one of
+     *                           the game's {@link bricker.utils.GameRandom} streams.
+     */
+    public CollsionStrategyFactory(BrickerGameManager brickerGameManager,
+                                   SplittableRandom rand)
+    {
+        this(brickerGameManager, rand, StrategyTable.defaultTable());
+    }
+
     /**
      * Constructor for CollsionStrategyFactory.
-     * Initializes the factory with a reference to the game manager and a random
-     * number generator for strategy selection.
+     * Creates the shared strategies of this game.
      *
      * @param brickerGameManager The game manager instance responsible for managing
      *                           the state of the game.
+     * @param rand               The stream the strategies are drawn from, one of
+     *                           the game's {@link bricker.utils.GameRandom} streams.
+     * @param strategyTable      The weights the strategies are drawn with.
      */
-    public CollsionStrategyFactory(BrickerGameManager brickerGameManager)
+    public CollsionStrategyFactory(BrickerGameManager brickerGameManager,
+                                   SplittableRandom rand,
+                                   StrategyTable strategyTable)
     {
-        this.brickerGameManager = brickerGameManager;
-        rand = new Random();
+        this.rand = rand;
+        this.strategySampler = strategyTable.getStrategySampler();
+        this.singleStrategySampler = strategyTable.getSingleStrategySampler();
+
+        this.strategies = new CollisionStrategy[TYPE_COUNTER];
+        this.strategies[StrategyType.BASIC.ordinal()] =
+                new BasicCollisionStrategy();
+        this.strategies[StrategyType.MORE_BALLS.ordinal()] =
+                new MoreBallsCollisionStrategy(brickerGameManager);
+        this.strategies[StrategyType.ADD_LIFE.ordinal()] =
+                new AddLifeCollisionStrategy(brickerGameManager);
+        this.strategies[StrategyType.TEMPORARY_PADDLE.ordinal()] =
+                new TemporaryPaddleCollisionStrategy(brickerGameManager);
+        this.strategies[StrategyType.TURBO.ordinal()] =
+                new TurboCollisionStrategy(brickerGameManager);
     }
 
     /**
-     * Builds a new collision strategy based on the current game state and
-     * the number of double behavior strategies that have been used.
-     * If the double behavior counter is less than 2, a strategy is selected
-     * from 9 options, otherwise it selects from 8 options.
+     * Draws the collision strategy of a new brick.
      *
-     * @return A CollisionStrategy instance based on the random selection.
+     * @return A shared CollisionStrategy instance.
      */
     public CollisionStrategy buildCollisionStrategy()
     {
-        if(brickerGameManager.doubleStrategrCounter.value() < TWO)
+        int type = this.strategySampler.sample(this.rand);
+        if (type != DOUBLE)
         {
-            strategyRand = rand.nextInt(TEN);
-            this.brickerGameManager.doubleStrategrCounter.increment();
+            return this.strategies[type];
         }
-        else
+        return buildDoubleStrategy();
+    }
+
+    /**
+     * Returns the id of a strategy handed out by this factory.
+     *
+     * @param collisionStrategy A strategy built by this factory.
+     * @return The strategy's id, or -1 if it does not come from this factory.
+     */
+    public int getStrategyId(CollisionStrategy collisionStrategy)
+    {
+        for (int type = 0; type < TYPE_COUNTER; type++)
         {
-            strategyRand = rand.nextInt(NINE);
+            if (this.strategies[type] == collisionStrategy)
+            {
+                return type;
+            }
         }
-        CollisionStrategy collisionStrategy = null;
+        Integer chainId = this.chainIds.get(collisionStrategy);
+        return chainId == null ? -1 : chainId;
+    }
 
-        if (strategyRand >= 0 && strategyRand <= FOUR)
+    /**
+     * Returns the id of the strategy made of the given behaviors, without
+     * building it: a single behavior, or a double behavior chain of two or
+     * three of them.
+     *
+     * @param types The behaviors, none of them double.
+     * @return The strategy's id, see {@link #getStrategy(int)}.
+     * @throws IllegalArgumentException if the behaviors do not make a
+     *                                  strategy.
+     */
+    public static int getStrategyId(StrategyType... types)
+    {
+        if (types.length == 0 || types.length > MAX_CHAIN_LENGTH)
         {
-            collisionStrategy = new BasicCollisionStrategy();
-
+            throw new IllegalArgumentException("a strategy has 1 to " +
+                    MAX_CHAIN_LENGTH + " behaviors, not " + types.length);
+        }
+        for (StrategyType type : types)
+        {
+            if (type == StrategyType.DOUBLE)
+            {
+                throw new IllegalArgumentException(
+                        "a double behavior is made of other behaviors");
+            }
         }
-        else if(strategyRand == FIVE)
+        if (types.length == 1)
+        {
+            return types[0].ordinal();
+        }
+        int id = types.length;
+        for (StrategyType type : types)
+        {
+            id = id * TYPE_COUNTER + type.ordinal();
+        }
+        return id;
+    }
+
+    /**
+     * Returns the shared strategy with the given id, building its chain if
+     * this factory has not built it yet.
+     *
+     * @param id An id returned by {@link #getStrategyId}, of any factory.
+     * @return The strategy.
+     * @throws IllegalArgumentException if the id is not a strategy id.
+     */
+    public CollisionStrategy getStrategy(int id)
+    {
+        if (id >= 0 && id < TYPE_COUNTER && id != DOUBLE)
         {
-            collisionStrategy = new MoreBallsCollisionStrategy(brickerGameManager);
+            return this.strategies[id];
         }
-        else if (strategyRand == SIX)
+        // Find the chain length whose leading digit matches, then the types
+        int scale = TYPE_COUNTER;
+        for (int length = 2; length <= MAX_CHAIN_LENGTH; length++)
         {
-            collisionStrategy = new AddLifeCollisionStrategy(brickerGameManager);
+            scale *= TYPE_COUNTER;
+            if (id / scale == length)
+            {
+                int rest = id % scale;
+                for (int i = length - 1; i >= 0; i--)
+                {
+                    this.chainTypes[i] = rest % TYPE_COUNTER;
+                    rest /= TYPE_COUNTER;
+                }
+                if (!containsDouble(length))
+                {
+                    return internChain(length);
+                }
+            }
+        }
+        throw new IllegalArgumentException("not a strategy id: " + id);
+    }
+
+    /**
+     * @return The number of distinct double behavior chains built so far.
+     */
+    public int getChainCounter()
+    {
+        return this.chains.size();
+    }
 
+    /**
+     * Draws the behaviors of a double behavior and returns the shared chain
+     * made of them.
+     */
+    private CollisionStrategy buildDoubleStrategy()
+    {
+        int length = 0;
+        int first = this.strategySampler.sample(this.rand);
+        if (first == DOUBLE)
+        {
+            // A nested double adds two behaviors, neither of them double
+            this.chainTypes[length++] = drawSingleType();
+            this.chainTypes[length++] = drawSingleType();
         }
-        else if (strategyRand == SEVEN)
+        else
         {
-            collisionStrategy = new TemporaryPaddleCollisionStrategy(brickerGameManager);
+            this.chainTypes[length++] = first;
+        }
+        this.chainTypes[length++] = drawSingleType();
+        return internChain(length);
+    }
 
+    /**
+     * Returns the shared chain of the first types in chainTypes, which is
+     * also the chain's id.
+     */
+    private CollisionStrategy internChain(int length)
+    {
+        int key = length;
+        for (int i = 0; i < length; i++)
+        {
+            key = key * TYPE_COUNTER + this.chainTypes[i];
         }
-        else if (strategyRand == EIGHT)
+        CollisionStrategy chain = this.chains.get(key);
+        if (chain == null)
         {
-            collisionStrategy = new TurboCollisionStrategy(brickerGameManager);
+            CollisionStrategy[] behaviors = new CollisionStrategy[length];
+            for (int i = 0; i < length; i++)
+            {
+                behaviors[i] = this.strategies[this.chainTypes[i]];
+            }
+            chain = new DoubleBehvaviorCollisionStrategy(behaviors);
+            this.chains.put(key, chain);
+            this.chainIds.put(chain, key);
         }
-        else if (strategyRand == NINE)
+        return chain;
+    }
+
+    /**
+     * @return True if one of the first types in chainTypes is double.
+     */
+    private boolean containsDouble(int length)
+    {
+        for (int i = 0; i < length; i++)
         {
-            collisionStrategy = new DoubleBehvaviorCollisionStrategy(brickerGameManager);
+            if (this.chainTypes[i] == DOUBLE)
+            {
+                return true;
+            }
         }
-        brickerGameManager.doubleStrategrCounter.increaseBy(1);
-        return collisionStrategy;
+        return false;
+    }
+
+    /**
+     * @return The ordinal of a strategy type other than double.
+     */
+    private int drawSingleType()
+    {
+        return this.singleStrategySampler.sample(this.rand);
     }
 }
@@ -1,33 +1,31 @@
 package bricker.brick_strategies;
 
-import bricker.main.BrickerGameManager;
 import danogl.GameObject;
 
 /**
- * A collision strategy that applies two separate collision behaviors
- * for a single collision event. Each behavior is selected randomly
- * from the CollisionStrategyFactory.
+ * A collision strategy that applies several collision behaviors for a
+ * single collision event: two, or three when one of them was itself a double
+ * behavior. The behaviors are drawn by the {@link CollsionStrategyFactory}
+ * when the brick is built and flattened into one chain.
  * @author Elyashiv Eitan
  */
 public class DoubleBehvaviorCollisionStrategy implements CollisionStrategy
 {
-    private CollsionStrategyFactory collsionStrategyFactory;
+    private final CollisionStrategy[] behaviors;
 
     /**
      * Constructor for DoubleBehaviorCollisionStrategy.
-     * Initializes the factory for generating random collision strategies.
      *
-     * @param brickerGameManager The game manager instance responsible for
-     * managing game-level objects and logic.
+     * @param behaviors The behaviors to apply, in order. None of them is a
+     *                  double behavior.
      */
-    public DoubleBehvaviorCollisionStrategy(BrickerGameManager brickerGameManager)
+    public DoubleBehvaviorCollisionStrategy(CollisionStrategy... behaviors)
     {
-        this.collsionStrategyFactory = new CollsionStrategyFactory(brickerGameManager);
+        this.behaviors = behaviors;
     }
 
     /**
-     * Handles a collision event by applying two random collision behaviors.
-     * The behaviors are fetched from the CollisionStrategyFactory and applied
+     * Handles a collision event by applying every behavior of the chain
      * sequentially.
      * @param thisObj  The game object involved in the collision (usually the brick).
      * @param otherObj The other game object involved in the collision (e.g., the ball).
@@ -35,9 +33,9 @@ public class DoubleBehvaviorCollisionStrategy implements CollisionStrategy
     @Override
     public void  onCollision(GameObject thisObj, GameObject otherObj)
     {
-
-        this.collsionStrategyFactory.buildCollisionStrategy().onCollision(thisObj, otherObj);
-        this.collsionStrategyFactory.buildCollisionStrategy().onCollision(thisObj, otherObj);
-
+        for (CollisionStrategy behavior : this.behaviors)
+        {
+            behavior.onCollision(thisObj, otherObj);
+        }
     }
 }
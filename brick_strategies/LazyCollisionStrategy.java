@@ -0,0 +1,53 @@
+package bricker.brick_strategies;
+
+import danogl.GameObject;
+
+/**
+ * A placeholder strategy shared by every brick whose real strategy has not
+ * been drawn yet. On the brick's first hit the real strategy is drawn from
+ * the factory, with the same weights and double behavior limits as an eager
+ * draw, and applied. The brick field asks for the draw itself (see
+ * {@link #draw()}), so the profiler sees the strategy that actually ran.
+ *
+ * Bricks that are never hit never cost a draw, which keeps the layout of
+ * large grids cheap.
+ * @author Elyashiv Eitan
+ */
+public class LazyCollisionStrategy implements CollisionStrategy
+{
+    private final CollsionStrategyFactory collsionStrategyFactory;
+
+    /**
+     * Constructor for LazyCollisionStrategy.
+     *
+     * @param collsionStrategyFactory The factory the real strategies are drawn
+     *                                from on first hit.
+     */
+    public LazyCollisionStrategy(CollsionStrategyFactory collsionStrategyFactory)
+    {
+        this.collsionStrategyFactory = collsionStrategyFactory;
+    }
+
+    /**
+     * Draws the real strategy of a brick on its first hit.
+     *
+     * @return A shared CollisionStrategy instance.
+     */
+    public CollisionStrategy draw()
+    {
+        return this.collsionStrategyFactory.buildCollisionStrategy();
+    }
+
+    /**
+     * Draws the real strategy of the brick and applies it.
+     *
+     * @param thisObj  The game object this strategy is associated with (usually
+     *                 the brick).
+     * @param otherObj The game object involved in the collision (e.g., the ball).
+     */
+    @Override
+    public void onCollision(GameObject thisObj, GameObject otherObj)
+    {
+        draw().onCollision(thisObj, otherObj);
+    }
+}
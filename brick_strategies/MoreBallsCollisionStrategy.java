@@ -11,6 +11,9 @@ import danogl.GameObject;
  */
 public class MoreBallsCollisionStrategy implements CollisionStrategy
 {
+    // Final definition
+    private static final int PUCKS = 2;
+
     private BrickerGameManager brickerGameManager;
 
     /**
@@ -37,7 +40,6 @@ public class MoreBallsCollisionStrategy implements CollisionStrategy
     @Override
     public void onCollision(GameObject thisObj, GameObject otherObj)
     {
-        brickerGameManager.createPuck(otherObj.getCenter());
-        brickerGameManager.createPuck(otherObj.getCenter());
+        brickerGameManager.createPucks(otherObj.getCenter(), PUCKS);
     }
 }
@@ -0,0 +1,95 @@
+package bricker.brick_strategies;
+
+import bricker.utils.AliasSampler;
+
+/**
+ * An immutable weight table of the strategy kinds (see {@link StrategyType}),
+ * with the alias samplers built from it: one over every kind, and one over
+ * every kind but double. A table can be shared by any number of factories and
+ * games, on any thread.
+ * @author Elyashiv Eitan
+ */
+public class StrategyTable
+{
+    private static final int TYPE_COUNTER = StrategyType.values().length;
+    private static final StrategyTable DEFAULT_TABLE =
+            new StrategyTable(StrategyType.defaultWeights());
+
+    private final double[] weights;
+    private final AliasSampler strategySampler;
+    private final AliasSampler singleStrategySampler;
+
+    /**
+     * Builds the samplers of a weight table.
+     *
+     * @param weights The weight of each {@link StrategyType}, indexed by
+     *                ordinal. Copied.
+     * @throws IllegalArgumentException If the table has the wrong length, or no
+     *                                  positive weight outside of double.
+     */
+    public StrategyTable(double[] weights)
+    {
+        if (weights.length != TYPE_COUNTER)
+        {
+            throw new IllegalArgumentException("expected " + TYPE_COUNTER +
+                    " strategy weights, got " + weights.length);
+        }
+        this.weights = weights.clone();
+        this.strategySampler = new AliasSampler(this.weights);
+        double[] singleWeights = weights.clone();
+        singleWeights[StrategyType.DOUBLE.ordinal()] = 0;
+        this.singleStrategySampler = new AliasSampler(singleWeights);
+    }
+
+    /**
+     * @return The shared table of the default weights.
+     */
+    public static StrategyTable defaultTable()
+    {
+        return DEFAULT_TABLE;
+    }
+
+    /**
+     * Parses a table written as comma-separated weights, in the order of
+     * {@link StrategyType}.
+     *
+     * @param weights The weights, e.g. "5,1,1,1,1,1".
+     * @return The table.
+     * @throws IllegalArgumentException If the weights are malformed.
+     */
+    public static StrategyTable parse(String weights)
+    {
+        String[] parts = weights.split(",");
+        double[] values = new double[parts.length];
+        for (int i = 0; i < parts.length; i++)
+        {
+            values[i] = Double.parseDouble(parts[i].trim());
+        }
+        return new StrategyTable(values);
+    }
+
+    /**
+     * @param type A strategy kind.
+     * @return The weight of the kind.
+     */
+    public double getWeight(StrategyType type)
+    {
+        return this.weights[type.ordinal()];
+    }
+
+    /**
+     * @return The sampler over every strategy kind.
+     */
+    AliasSampler getStrategySampler()
+    {
+        return this.strategySampler;
+    }
+
+    /**
+     * @return The sampler over every strategy kind but double.
+     */
+    AliasSampler getSingleStrategySampler()
+    {
+        return this.singleStrategySampler;
+    }
+}
@@ -0,0 +1,48 @@
+package bricker.brick_strategies;
+
+/**
+ * The kinds of collision strategies a brick can get, with the default
+ * weights they are drawn with when the bricks are laid out.
+ * @author Elyashiv Eitan
+ */
+public enum StrategyType
+{
+    BASIC(5),
+    MORE_BALLS(1),
+    ADD_LIFE(1),
+    TEMPORARY_PADDLE(1),
+    TURBO(1),
+    DOUBLE(1);
+
+    private final double defaultWeight;
+
+    /**
+     * @param defaultWeight The weight of this kind in the default table.
+     */
+    StrategyType(double defaultWeight)
+    {
+        this.defaultWeight = defaultWeight;
+    }
+
+    /**
+     * @return The weight of this kind in the default table.
+     */
+    public double getDefaultWeight()
+    {
+        return this.defaultWeight;
+    }
+
+    /**
+     * @return The default weight table, indexed by ordinal.
+     */
+    public static double[] defaultWeights()
+    {
+        StrategyType[] types = values();
+        double[] weights = new double[types.length];
+        for (int i = 0; i < types.length; i++)
+        {
+            weights[i] = types[i].defaultWeight;
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,217 @@
+package bricker.gameobjects;
+
+import bricker.main.BrickerGameManager;
+import bricker.utils.LiveObjectRegistry;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * A paddle that plays by itself, for load tests and long headless runs. It
+ * predicts where the main ball and the pucks will cross the paddle's line by
+ * reflecting their straight trajectories off the window's left, right and
+ * top edges, where the game's borders are, and moves towards the main
+ * ball's crossing, or towards an earlier puck's crossing when it can catch
+ * that puck and still get back to the main ball in time.
+ *
+ * The bricks are not part of a prediction, which thus holds until the
+ * ball's next bounce. A ball's prediction is kept until its velocity
+ * changes (see {@link Ball#getVelocityVersion()}), so a frame costs a
+ * version check per ball, and a few arithmetic operations per ball that
+ * bounced. Pucks simulated by the {@link PuckEngine} are not tracked.
+ * @author Elyashiv Eitan
+ */
+public class AutopilotPaddle extends Paddle
+{
+    private static final float DEAD_ZONE_RATIO = 0.25f;
+    private static final float SPEED_MARGIN = 0.75f;
+
+    private final BrickerGameManager brickerGameManager;
+    private final float windowWidth;
+    private final Map<Ball, Prediction> predictions = new IdentityHashMap<>();
+    private float clock;
+    private int direction;
+    private int predictionCounter;
+
+    /**
+     * Initializes an AutopilotPaddle object.
+     *
+     * @param topLeftCorner      The top-left corner position of the paddle.
+     * @param dimensions         The dimensions of the paddle.
+     * @param renderable         The renderable object for visual
+     *                           representation.
+     * @param windowDimensions   The window dimensions.
+     * @param brickerGameManager The game whose balls the paddle follows.
+     */
+    public AutopilotPaddle(Vector2 topLeftCorner, Vector2 dimensions,
+                           Renderable renderable, Vector2 windowDimensions,
+                           BrickerGameManager brickerGameManager)
+    {
+        super(topLeftCorner, dimensions, renderable, null, windowDimensions);
+        this.brickerGameManager = brickerGameManager;
+        this.windowWidth = windowDimensions.x();
+    }
+
+    /**
+     * Advances the paddle's clock, chooses where to go, then moves the
+     * paddle.
+     *
+     * @param deltaTime Time elapsed since the last frame.
+     */
+    @Override
+    public void update(float deltaTime)
+    {
+        this.clock += deltaTime;
+        this.direction = chooseDirection();
+        super.update(deltaTime);
+    }
+
+    /**
+     * @return true if the paddle goes left to its target this frame.
+     */
+    @Override
+    protected boolean isMovingLeft()
+    {
+        return this.direction < 0;
+    }
+
+    /**
+     * @return true if the paddle goes right to its target this frame.
+     */
+    @Override
+    protected boolean isMovingRight()
+    {
+        return this.direction > 0;
+    }
+
+    /**
+     * @return The number of predictions computed so far, one per velocity
+     * change of a followed ball.
+     */
+    public int getPredictionCounter()
+    {
+        return this.predictionCounter;
+    }
+
+    /**
+     * Moves towards the predicted crossing of the main ball, or of a puck
+     * crossing earlier that can be caught on the way.
+     *
+     * @return -1 to move left, 1 to move right, 0 to stay.
+     */
+    private int chooseDirection()
+    {
+        float paddleX = getCenter().x();
+        float speed = getMovementSpeed() * SPEED_MARGIN;
+        Ball mainBall = this.brickerGameManager.getBall();
+        Prediction ball = predict(mainBall);
+        // Stay under the ball while the crossing can still be reached in
+        // time: the ball may bounce off a brick or paddle before it arrives
+        float reach = (ball.arrival - this.clock) * speed;
+        float targetX = Math.max(ball.centerX - reach, Math.min(
+                ball.centerX + reach, mainBall.getCenter().x()));
+        float targetTime = ball.arrival;
+        LiveObjectRegistry<Ball> pucks = this.brickerGameManager.getPucks();
+        for (int i = 0; i < pucks.size(); i++)
+        {
+            Prediction puck = predict(pucks.get(i));
+            if (puck.arrival >= targetTime || puck.arrival < this.clock)
+            {
+                continue;
+            }
+            // Catch the puck, then still make it to the main ball
+            if (Math.abs(puck.centerX - paddleX) <=
+                    (puck.arrival - this.clock) * speed &&
+                    Math.abs(ball.centerX - puck.centerX) <=
+                            (ball.arrival - puck.arrival) * speed)
+            {
+                targetX = puck.centerX;
+                targetTime = puck.arrival;
+            }
+        }
+        float offset = targetX - paddleX;
+        float deadZone = getDimensions().x() * DEAD_ZONE_RATIO;
+        if (offset < -deadZone)
+        {
+            return -1;
+        }
+        return offset > deadZone ? 1 : 0;
+    }
+
+    /**
+     * Returns the prediction of a ball, computing it again only if the
+     * ball's velocity changed since it was computed.
+     */
+    private Prediction predict(Ball ball)
+    {
+        Prediction prediction = this.predictions.get(ball);
+        if (prediction == null)
+        {
+            prediction = new Prediction();
+            this.predictions.put(ball, prediction);
+        }
+        int version = ball.getVelocityVersion();
+        if (prediction.version != version)
+        {
+            prediction.version = version;
+            computePrediction(ball, prediction);
+            this.predictionCounter++;
+        }
+        return prediction;
+    }
+
+    /**
+     * Follows a ball's straight trajectory, reflected off the side and top
+     * walls, to the height where its bottom meets the paddle's top. The
+     * walls are unfolded: the ball moves freely and its horizontal position
+     * is folded back into the window.
+     */
+    private void computePrediction(Ball ball, Prediction prediction)
+    {
+        Vector2 position = ball.getTopLeftCorner();
+        Vector2 velocity = ball.getVelocity();
+        Vector2 dimensions = ball.getDimensions();
+        float lineY = getTopLeftCorner().y() - dimensions.y();
+        float time;
+        if (velocity.y() > 0 && position.y() <= lineY)
+        {
+            time = (lineY - position.y()) / velocity.y();
+        }
+        else if (velocity.y() < 0 && position.y() <= lineY)
+        {
+            // Up to the top wall, then all the way down
+            time = (position.y() + lineY) / -velocity.y();
+        }
+        else
+        {
+            prediction.centerX = position.x() + dimensions.x() / 2;
+            prediction.arrival = Float.POSITIVE_INFINITY;
+            return;
+        }
+        float span = this.windowWidth - dimensions.x();
+        float period = 2 * span;
+        float x = (position.x() + velocity.x() * time) % period;
+        if (x < 0)
+        {
+            x += period;
+        }
+        if (x > span)
+        {
+            x = period - x;
+        }
+        prediction.centerX = x + dimensions.x() / 2;
+        prediction.arrival = this.clock + time;
+    }
+
+    /**
+     * Where and when a ball crosses the paddle's line, valid for one
+     * velocity version of the ball.
+     */
+    private static class Prediction
+    {
+        private int version = -1;
+        private float centerX;
+        private float arrival;
+    }
+}
@@ -1,6 +1,8 @@
 package bricker.gameobjects;
 
 import bricker.main.BrickerGameManager;
+import bricker.utils.LifecycleState;
+import bricker.utils.Recyclable;
 import danogl.GameObject;
 import danogl.collisions.Collision;
 import danogl.gui.Sound;
@@ -13,12 +15,17 @@ import danogl.util.Vector2;
  * and plays a sound upon each collision.
  * @author Elyashiv Eitan
  */
-public class Ball extends GameObject
+public class Ball extends GameObject implements Recyclable
 {
 
     private final int MAX_TURBO_COLISION= 6;
+    private final int MAX_SUBSTEPS = 8;
+    private final float MAX_SUBSTEP_DISTANCE = 7.5f;
     private int turboCounter = 0;
     private int collisionCounter = 0;
+    private int registryIndex = -1;
+    private int velocityVersion;
+    private LifecycleState lifecycleState = LifecycleState.RECYCLED;
     private Sound collisionSound;
     private BrickerGameManager brickerGameManager;
 
@@ -31,7 +38,8 @@ public class Ball extends GameObject
      * @param dimensions     the width and height of the ball in window
      *                       coordinates.
      * @param renderable     the visual representation of the ball. Can be null.
-     * @param collisionSound the sound to play on each collision.
+     * @param collisionSound the sound to play on each collision. Can be null,
+     *                       in which case the ball is silent.
      */
     public Ball(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable,
                 Sound collisionSound, BrickerGameManager brickerGameManager)
@@ -41,6 +49,29 @@ public class Ball extends GameObject
         this.collisionSound = collisionSound;
     }
 
+    /**
+     * Moves the ball in substeps whose number grows with its speed, so that
+     * no substep moves it further than half a brick's height. After each
+     * substep the move is swept against the bricks and paddles, so the ball
+     * cannot tunnel through them even at high speed or with a large time step.
+     *
+     * @param deltaTime time elapsed since the last frame.
+     */
+    @Override
+    public void update(float deltaTime)
+    {
+        float distance = getVelocity().magnitude() * deltaTime;
+        int substeps = Math.min(MAX_SUBSTEPS, Math.max(1,
+                (int) Math.ceil(distance / MAX_SUBSTEP_DISTANCE)));
+        float substepTime = deltaTime / substeps;
+        for (int i = 0; i < substeps; i++)
+        {
+            Vector2 from = getTopLeftCorner();
+            super.update(substepTime);
+            brickerGameManager.sweepBall(this, from);
+        }
+    }
+
     /**
      * Called when the ball collides with another game object. The ball bounces
      * off by flipping its velocity along the collision normal and increments
@@ -53,13 +84,85 @@ public class Ball extends GameObject
     public void onCollisionEnter(GameObject other, Collision collision)
     {
         super.onCollisionEnter(other, collision);
-        Vector2 newVel = getVelocity().flipped(collision.getNormal());
-        setVelocity(newVel);
-        collisionSound.play();
+        bounce(collision.getNormal());
+    }
+
+    /**
+     * Bounces the ball off a surface by flipping its velocity along the given
+     * normal, increments the collision counter and plays the collision sound.
+     *
+     * @param normal the normal of the surface the ball hit.
+     */
+    public void bounce(Vector2 normal)
+    {
+        setVelocity(getVelocity().flipped(normal));
+        brickerGameManager.playSound(collisionSound);
         collisionCounter++;
         handleTurboMode();
     }
 
+    /**
+     * Sets the ball's velocity and counts the change, see
+     * {@link #getVelocityVersion()}.
+     *
+     * @param velocity the new velocity of the ball.
+     */
+    @Override
+    public void setVelocity(Vector2 velocity)
+    {
+        super.setVelocity(velocity);
+        this.velocityVersion++;
+    }
+
+    /**
+     * @return A number that changes whenever the ball's velocity is set:
+     * by a bounce, a turbo, a reset or a re-arm. While it stays the same the
+     * ball moves in a straight line, so anything computed from its velocity
+     * can be kept.
+     */
+    public int getVelocityVersion()
+    {
+        return this.velocityVersion;
+    }
+
+    /**
+     * Re-arms a pooled ball so it can be added to the game again as if it was
+     * just created.
+     *
+     * @param topLeftCorner the new position of the ball's top-left corner.
+     * @param velocity      the new velocity of the ball.
+     * @param renderable    the visual representation of the ball.
+     */
+    public void rearm(Vector2 topLeftCorner, Vector2 velocity,
+                      Renderable renderable)
+    {
+        setTopLeftCorner(topLeftCorner);
+        setVelocity(velocity);
+        renderer().setRenderable(renderable);
+        this.collisionCounter = 0;
+        this.turboCounter = 0;
+    }
+
+    /**
+     * Restores the ball's counters, e.g. from a saved game.
+     *
+     * @param collisionCounter the number of collisions of the ball.
+     * @param turboCounter     the number of collisions in the current turbo.
+     */
+    public void restoreCounters(int collisionCounter, int turboCounter)
+    {
+        this.collisionCounter = collisionCounter;
+        this.turboCounter = turboCounter;
+    }
+
+    /**
+     * @return The number of collisions of the ball in the current turbo.
+     */
+    public int getTurboCounter()
+    {
+        return this.turboCounter;
+    }
+
     /**
      * Retrieves the current collision counter value.
      * @return The current value of the collision counter.
@@ -69,6 +172,42 @@ public class Ball extends GameObject
         return this.collisionCounter;
     }
 
+    /**
+     * @return The ball's slot in its live object registry.
+     */
+    @Override
+    public int getRegistryIndex()
+    {
+        return this.registryIndex;
+    }
+
+    /**
+     * @param registryIndex The ball's new slot in its live object registry.
+     */
+    @Override
+    public void setRegistryIndex(int registryIndex)
+    {
+        this.registryIndex = registryIndex;
+    }
+
+    /**
+     * @return The ball's lifecycle state.
+     */
+    @Override
+    public LifecycleState getLifecycleState()
+    {
+        return this.lifecycleState;
+    }
+
+    /**
+     * @param lifecycleState The ball's new lifecycle state.
+     */
+    @Override
+    public void setLifecycleState(LifecycleState lifecycleState)
+    {
+        this.lifecycleState = lifecycleState;
+    }
+
     /**
      * Handles the turbo mode functionality. If the ball is in turbo mode, the turbo
      * counter is incremented. Once the counter exceeds the maximum allowed turbo
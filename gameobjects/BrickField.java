@@ -0,0 +1,785 @@
+package bricker.gameobjects;
+
+import bricker.brick_strategies.CollisionStrategy;
+import bricker.brick_strategies.LazyCollisionStrategy;
+import bricker.utils.FrameProfiler;
+import danogl.GameObject;
+import danogl.util.Vector2;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * The brick field: a rows x cols lattice of bricks stored as plain data
+ * instead of one game object per brick. Which bricks are left is a bit set,
+ * each brick's collision strategy is a byte indexing a small palette of the
+ * shared strategies, and a brick's rectangle is computed from its row and
+ * column. A brick costs a little over one byte, so grids of millions of
+ * bricks stay small.
+ *
+ * Cells are numbered row by row: cell = slot * cols + col, where slot is the
+ * storage of the row's bricks. Screen rows map to slots through a small
+ * table, which starts as the identity. The cells a moving box overlaps are
+ * computed directly from its bounding box, so the cost of a ball's brick
+ * collisions does not depend on the number of bricks.
+ *
+ * With row streaming on (endless mode), a row whose last brick was hit is
+ * recycled by {@link #streamClearedRows(Supplier)}: the rows above it move
+ * down one row, and its slot comes back at the top with new strategies,
+ * full, or as it was laid out by {@link #layOut}. Only the row table
+ * changes, so streaming a row costs O(rows + cols) and never allocates,
+ * however many rows were played.
+ *
+ * A hit removes its brick at once, but the brick's strategy is only applied
+ * by {@link #applyHits()}, which the game calls once per frame after the
+ * physics pass, in the order of the hits. The strategies' effects (pucks,
+ * hearts, turbo, paddles) thus never change the game objects while they are
+ * being updated, and a brick hit twice in a frame has a single effect.
+ * @author Elyashiv Eitan
+ */
+public class BrickField
+{
+    private static final int MAX_PALETTE_SIZE = 256;
+    private static final int HIT_QUEUE_CAPACITY = 64;
+    // Never enabled, for fields without a profiler
+    private static final FrameProfiler DISABLED_PROFILER = new FrameProfiler();
+
+    private final int rows;
+    private final int cols;
+    private final float originX;
+    private final float originY;
+    private final float pitchX;
+    private final float pitchY;
+    private final Vector2 brickSize;
+    private final BitSet aliveBricks;
+    private final byte[] strategyIds;
+    private final CollisionStrategy[] palette =
+            new CollisionStrategy[MAX_PALETTE_SIZE];
+    private final Map<CollisionStrategy, Integer> paletteIds =
+            new IdentityHashMap<>();
+    private final int[] rowSlots;
+    private final int[] slotRows;
+    private final int[] rowBricks;
+    private final int[] clearedSlots;
+    private int clearedCounter;
+    private boolean rowStreaming;
+    private LongBuffer layoutBricks;
+    private ByteBuffer layoutIndexes;
+    private int[] layoutIds;
+    private IntConsumer rowListener = row -> { };
+    private final GameObject probe;
+    private final GameObject hitter;
+    private final CollisionEventQueue pendingHits =
+            new CollisionEventQueue(HIT_QUEUE_CAPACITY);
+    private int brickCounter;
+    private IntConsumer removalListener = cell -> { };
+    private FrameProfiler profiler = DISABLED_PROFILER;
+
+    /**
+     * Constructs a full brick field. The strategies must be set with one of
+     * the fill methods before the first hit.
+     *
+     * @param rows      number of brick rows.
+     * @param cols      number of brick columns.
+     * @param origin    the top-left corner of the brick in row 0, column 0.
+     * @param brickSize the width and height of every brick.
+     * @param gap       the gap between two neighbouring bricks.
+     */
+    public BrickField(int rows, int cols, Vector2 origin, Vector2 brickSize,
+                      float gap)
+    {
+        this.rows = rows;
+        this.cols = cols;
+        this.originX = origin.x();
+        this.originY = origin.y();
+        this.brickSize = brickSize;
+        this.pitchX = brickSize.x() + gap;
+        this.pitchY = brickSize.y() + gap;
+        int cells = rows * cols;
+        this.aliveBricks = new BitSet(cells);
+        this.strategyIds = new byte[cells];
+        this.rowSlots = new int[rows];
+        this.slotRows = new int[rows];
+        this.rowBricks = new int[rows];
+        this.clearedSlots = new int[rows];
+        this.probe = new GameObject(origin, brickSize, null);
+        this.hitter = new GameObject(Vector2.ZERO, Vector2.ZERO, null);
+        reviveAll();
+    }
+
+    /**
+     * @return the number of brick rows.
+     */
+    public int getRows()
+    {
+        return this.rows;
+    }
+
+    /**
+     * @return the number of brick columns.
+     */
+    public int getCols()
+    {
+        return this.cols;
+    }
+
+    /**
+     * @return the number of bricks left.
+     */
+    public int getBrickCounter()
+    {
+        return this.brickCounter;
+    }
+
+    /**
+     * @return the width and height of every brick.
+     */
+    public Vector2 getBrickSize()
+    {
+        return this.brickSize;
+    }
+
+    /**
+     * Returns the top-left corner of the brick cell at the given row and
+     * column.
+     *
+     * @param row the brick row.
+     * @param col the brick column.
+     * @return the top-left corner of the cell, in window coordinates.
+     */
+    public Vector2 cellTopLeft(int row, int col)
+    {
+        return new Vector2(this.originX + col * this.pitchX,
+                this.originY + row * this.pitchY);
+    }
+
+    /**
+     * @param cell a cell index.
+     * @return the left edge of the cell, in window coordinates.
+     */
+    public float cellLeft(int cell)
+    {
+        return this.originX + (cell % this.cols) * this.pitchX;
+    }
+
+    /**
+     * @param cell a cell index.
+     * @return the top edge of the cell, in window coordinates.
+     */
+    public float cellTop(int cell)
+    {
+        return this.originY + this.slotRows[cell / this.cols] * this.pitchY;
+    }
+
+    /**
+     * @param row a screen row.
+     * @return the top edge of the row's bricks, in window coordinates.
+     */
+    public float rowTop(int row)
+    {
+        return this.originY + row * this.pitchY;
+    }
+
+    /**
+     * @param cell a cell index.
+     * @return true if the cell still holds a brick.
+     */
+    public boolean isAlive(int cell)
+    {
+        return this.aliveBricks.get(cell);
+    }
+
+    /**
+     * @param cell a cell index.
+     * @return the strategy of the cell's brick.
+     */
+    public CollisionStrategy getStrategy(int cell)
+    {
+        return this.palette[this.strategyIds[cell] & 0xFF];
+    }
+
+    /**
+     * Sets the strategy of a cell's brick.
+     *
+     * @param cell     a cell index.
+     * @param strategy the strategy applied on the brick's next hit. At most
+     *                 256 distinct strategies can be used in one field.
+     */
+    public void setStrategy(int cell, CollisionStrategy strategy)
+    {
+        this.strategyIds[cell] = paletteId(strategy);
+    }
+
+    /**
+     * Gives every cell the same strategy.
+     *
+     * @param strategy the strategy of every brick.
+     */
+    public void fill(CollisionStrategy strategy)
+    {
+        Arrays.fill(this.strategyIds, paletteId(strategy));
+    }
+
+    /**
+     * Gives every cell a strategy drawn from a supplier, row by row.
+     *
+     * @param strategies supplies the strategy of each brick.
+     */
+    public void fill(Supplier<CollisionStrategy> strategies)
+    {
+        for (int cell = 0; cell < this.strategyIds.length; cell++)
+        {
+            this.strategyIds[cell] = paletteId(strategies.get());
+        }
+    }
+
+    /**
+     * Lays the bricks out as stored in a level file: the cells holding a
+     * brick, and the strategy each cell's index selects in a table. A brick
+     * whose table entry is null gets a strategy drawn from a supplier. The
+     * buffers are kept, and a row streamed afterwards comes back as it was
+     * laid out. Hits not applied yet are dropped.
+     *
+     * @param words      the cells holding a brick, as the words of a bit set
+     *                   indexed by cell, from the buffer's position to its
+     *                   limit. The buffer is not moved.
+     * @param indexes    the table index of each cell, a byte per cell row by
+     *                   row, from the buffer's position on. The buffer is not
+     *                   moved.
+     * @param strategies the strategy of each index, or null to draw it. At
+     *                   most 256 distinct strategies can be used in one
+     *                   field.
+     * @param drawn      supplies the strategies drawn, row by row.
+     * @throws IllegalArgumentException if an index is not in the table.
+     */
+    public void layOut(LongBuffer words, ByteBuffer indexes,
+                       CollisionStrategy[] strategies,
+                       Supplier<CollisionStrategy> drawn)
+    {
+        setAliveBricks(words);
+        // The table's palette ids, or -1 for drawn strategies
+        int[] ids = new int[strategies.length];
+        for (int index = 0; index < strategies.length; index++)
+        {
+            ids[index] = strategies[index] == null ? -1 :
+                    paletteId(strategies[index]);
+        }
+        this.layoutBricks = words.slice();
+        this.layoutIndexes = indexes.slice();
+        this.layoutIds = ids;
+        for (int cell = 0; cell < this.strategyIds.length; cell++)
+        {
+            layOutStrategy(cell, drawn);
+        }
+    }
+
+    /**
+     * Gives a cell the strategy its layout index selects, drawing it if the
+     * cell holds a brick whose table entry is null.
+     */
+    private void layOutStrategy(int cell, Supplier<CollisionStrategy> drawn)
+    {
+        int index = this.layoutIndexes.get(cell) & 0xFF;
+        if (index >= this.layoutIds.length)
+        {
+            throw new IllegalArgumentException("strategy index " + index +
+                    " of cell " + cell + " is not in the table");
+        }
+        if (this.layoutIds[index] >= 0)
+        {
+            this.strategyIds[cell] = (byte) this.layoutIds[index];
+        }
+        else if (this.aliveBricks.get(cell))
+        {
+            this.strategyIds[cell] = paletteId(drawn.get());
+        }
+    }
+
+    /**
+     * @return true if the layout has a brick in the cell.
+     */
+    private boolean isLaidOut(int cell)
+    {
+        int word = cell / Long.SIZE;
+        return word < this.layoutBricks.limit() &&
+                (this.layoutBricks.get(word) & (1L << cell)) != 0;
+    }
+
+    /**
+     * Puts a brick back in every cell, keeping the cells' strategies, and
+     * the rows back in their initial order. The layout of {@link #layOut}
+     * is dropped, so streamed rows come back full. Hits not applied yet are
+     * dropped.
+     */
+    public void reviveAll()
+    {
+        this.pendingHits.clear();
+        this.layoutBricks = null;
+        this.layoutIndexes = null;
+        this.layoutIds = null;
+        this.aliveBricks.set(0, this.strategyIds.length);
+        this.brickCounter = this.strategyIds.length;
+        for (int row = 0; row < this.rows; row++)
+        {
+            this.rowSlots[row] = row;
+            this.slotRows[row] = row;
+        }
+        Arrays.fill(this.rowBricks, this.cols);
+        this.clearedCounter = 0;
+    }
+
+    /**
+     * @return the bricks left, as the words of a bit set indexed by cell.
+     */
+    public long[] getAliveBricks()
+    {
+        return this.aliveBricks.toLongArray();
+    }
+
+    /**
+     * Replaces the bricks left, without hitting the removed ones. Hits not
+     * applied yet are dropped.
+     *
+     * @param words the bricks left, as the words of a bit set indexed by cell.
+     */
+    public void setAliveBricks(long[] words)
+    {
+        setAliveBricks(LongBuffer.wrap(words));
+    }
+
+    /**
+     * Replaces the bricks left, without hitting the removed ones. Rows left
+     * empty are not streamed: only a hit clears a row. Hits not applied yet
+     * are dropped.
+     *
+     * @param words the bricks left, as the words of a bit set indexed by
+     *              cell, from the buffer's position to its limit. The buffer
+     *              is not moved.
+     */
+    public void setAliveBricks(LongBuffer words)
+    {
+        this.pendingHits.clear();
+        this.aliveBricks.clear();
+        this.aliveBricks.or(BitSet.valueOf(words));
+        this.aliveBricks.clear(this.strategyIds.length,
+                Math.max(this.strategyIds.length, this.aliveBricks.length()));
+        this.brickCounter = this.aliveBricks.cardinality();
+        Arrays.fill(this.rowBricks, 0);
+        for (int cell = nextAlive(0); cell >= 0; cell = nextAlive(cell + 1))
+        {
+            this.rowBricks[cell / this.cols]++;
+        }
+        this.clearedCounter = 0;
+    }
+
+    /**
+     * @return the slot of each screen row, from the top.
+     */
+    public int[] getRowSlots()
+    {
+        return this.rowSlots.clone();
+    }
+
+    /**
+     * Replaces the order of the rows on the screen.
+     *
+     * @param rowSlots the slot of each screen row, from the top; a
+     *                 permutation of 0..rows-1.
+     */
+    public void setRowSlots(int[] rowSlots)
+    {
+        for (int row = 0; row < this.rows; row++)
+        {
+            this.rowSlots[row] = rowSlots[row];
+            this.slotRows[rowSlots[row]] = row;
+        }
+    }
+
+    /**
+     * Turns row streaming (endless mode) on or off. While it is on, rows
+     * whose last brick was hit are kept for
+     * {@link #streamClearedRows(Supplier)}.
+     *
+     * @param rowStreaming true to stream rows.
+     */
+    public void setRowStreaming(boolean rowStreaming)
+    {
+        this.rowStreaming = rowStreaming;
+    }
+
+    /**
+     * Sets the profiler that times the strategies applied by
+     * {@link #applyHits()}.
+     *
+     * @param profiler the frame profiler.
+     */
+    public void setProfiler(FrameProfiler profiler)
+    {
+        this.profiler = profiler;
+    }
+
+    /**
+     * Sets a listener called with the screen row of every streamed row: the
+     * rows from the top down to it have moved.
+     *
+     * @param rowListener called with the screen row.
+     */
+    public void setRowListener(IntConsumer rowListener)
+    {
+        this.rowListener = rowListener;
+    }
+
+    /**
+     * Recycles the rows cleared since the last call, in the order they were
+     * cleared: the rows above each one move down one row, and its slot is
+     * refilled, as laid out by {@link #layOut} if it was, and placed at the
+     * top. Call it after {@link #applyHits()}, so no hit of a recycled row
+     * is still waiting for its strategy.
+     *
+     * @param strategies supplies the strategy of each new brick drawn, left
+     *                   to right.
+     * @return the number of rows streamed.
+     */
+    public int streamClearedRows(Supplier<CollisionStrategy> strategies)
+    {
+        int streamed = this.clearedCounter;
+        for (int i = 0; i < streamed; i++)
+        {
+            int slot = this.clearedSlots[i];
+            int row = this.slotRows[slot];
+            System.arraycopy(this.rowSlots, 0, this.rowSlots, 1, row);
+            this.rowSlots[0] = slot;
+            for (int moved = 0; moved <= row; moved++)
+            {
+                this.slotRows[this.rowSlots[moved]] = moved;
+            }
+            refillSlot(slot, strategies);
+            this.rowListener.accept(row);
+        }
+        this.clearedCounter = 0;
+        return streamed;
+    }
+
+    /**
+     * Puts the bricks of an empty slot back, every brick or the layout's.
+     */
+    private void refillSlot(int slot, Supplier<CollisionStrategy> strategies)
+    {
+        int firstCell = slot * this.cols;
+        if (this.layoutBricks == null)
+        {
+            for (int cell = firstCell; cell < firstCell + this.cols; cell++)
+            {
+                this.strategyIds[cell] = paletteId(strategies.get());
+            }
+            this.aliveBricks.set(firstCell, firstCell + this.cols);
+            this.rowBricks[slot] = this.cols;
+            this.brickCounter += this.cols;
+            return;
+        }
+        for (int cell = firstCell; cell < firstCell + this.cols; cell++)
+        {
+            if (isLaidOut(cell))
+            {
+                this.aliveBricks.set(cell);
+                this.rowBricks[slot]++;
+                this.brickCounter++;
+            }
+            layOutStrategy(cell, strategies);
+        }
+    }
+
+    /**
+     * Returns the next cell holding a brick.
+     *
+     * @param cell the first cell to look at.
+     * @return the first cell from the given one holding a brick, or -1.
+     */
+    public int nextAlive(int cell)
+    {
+        int next = this.aliveBricks.nextSetBit(cell);
+        return next < this.strategyIds.length ? next : -1;
+    }
+
+    /**
+     * Sets a listener called with every cell whose brick was hit and
+     * removed, e.g. to repaint it.
+     *
+     * @param removalListener called with the cell index.
+     */
+    public void setRemovalListener(IntConsumer removalListener)
+    {
+        this.removalListener = removalListener;
+    }
+
+    /**
+     * Hits the brick in a cell: removes it and queues its strategy.
+     *
+     * @param row   the brick row.
+     * @param col   the brick column.
+     * @param other the game object that hit the brick.
+     * @return false if the cell was already empty.
+     */
+    public boolean hit(int row, int col, GameObject other)
+    {
+        return hit(this.rowSlots[row] * this.cols + col, other);
+    }
+
+    /**
+     * Hits the brick in a cell: removes it and queues its strategy, together
+     * with the center of the object that hit it, for {@link #applyHits()}.
+     *
+     * @param cell  a cell index.
+     * @param other the game object that hit the brick.
+     * @return false if the cell was already empty.
+     */
+    public boolean hit(int cell, GameObject other)
+    {
+        if (!this.aliveBricks.get(cell))
+        {
+            return false;
+        }
+        this.aliveBricks.clear(cell);
+        this.brickCounter--;
+        int slot = cell / this.cols;
+        if (--this.rowBricks[slot] == 0 && this.rowStreaming)
+        {
+            this.clearedSlots[this.clearedCounter++] = slot;
+        }
+        Vector2 center = other.getCenter();
+        this.pendingHits.add(cell, center.x(), center.y());
+        this.removalListener.accept(cell);
+        return true;
+    }
+
+    /**
+     * Applies the strategies of the queued hits, oldest first. A strategy
+     * gets a probe object covering the cell in place of the brick, and one
+     * centered where the hitting object was at the hit in place of that
+     * object. Hits queued by the strategies themselves are applied too.
+     */
+    public void applyHits()
+    {
+        while (this.pendingHits.size() > 0)
+        {
+            int cell = this.pendingHits.headCell();
+            this.hitter.setCenter(new Vector2(this.pendingHits.headHitterX(),
+                    this.pendingHits.headHitterY()));
+            this.pendingHits.remove();
+            CollisionStrategy strategy = getStrategy(cell);
+            if (strategy instanceof LazyCollisionStrategy)
+            {
+                strategy = ((LazyCollisionStrategy) strategy).draw();
+            }
+            long start = this.profiler.start();
+            this.probe.setTopLeftCorner(new Vector2(cellLeft(cell),
+                    cellTop(cell)));
+            strategy.onCollision(this.probe, this.hitter);
+            this.profiler.recordStrategy(strategy, start);
+        }
+    }
+
+    /**
+     * @return the number of hits whose strategies were not applied yet.
+     */
+    public int getPendingHits()
+    {
+        return this.pendingHits.size();
+    }
+
+    /**
+     * Calls an action for every brick whose cell overlaps a rectangle.
+     *
+     * @param left   left edge of the rectangle.
+     * @param top    top edge of the rectangle.
+     * @param right  right edge of the rectangle.
+     * @param bottom bottom edge of the rectangle.
+     * @param action called with each brick's cell, row by row.
+     */
+    public void forEachBrick(float left, float top, float right, float bottom,
+                             IntConsumer action)
+    {
+        int firstCol = Math.max(0, (int) Math.floor((left - this.originX) /
+                this.pitchX));
+        int lastCol = Math.min(this.cols - 1, (int) Math.floor(
+                (right - this.originX) / this.pitchX));
+        int firstRow = Math.max(0, (int) Math.floor((top - this.originY) /
+                this.pitchY));
+        int lastRow = Math.min(this.rows - 1, (int) Math.floor(
+                (bottom - this.originY) / this.pitchY));
+        for (int row = firstRow; row <= lastRow; row++)
+        {
+            int firstCell = this.rowSlots[row] * this.cols;
+            for (int col = firstCol; col <= lastCol; col++)
+            {
+                int cell = firstCell + col;
+                if (this.aliveBricks.get(cell))
+                {
+                    action.accept(cell);
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests a ball against the bricks in the cells its bounding box overlaps.
+     * For every brick the ball overlaps, the ball bounces off the brick (if it
+     * is moving into it) and the brick is hit.
+     *
+     * @param ball the ball to test.
+     */
+    public void collide(Ball ball)
+    {
+        Vector2 topLeft = ball.getTopLeftCorner();
+        Vector2 dimensions = ball.getDimensions();
+        float left = topLeft.x();
+        float top = topLeft.y();
+        float right = left + dimensions.x();
+        float bottom = top + dimensions.y();
+        float brickWidth = this.brickSize.x();
+        float brickHeight = this.brickSize.y();
+
+        int firstCol = Math.max(0, (int) Math.floor((left - this.originX) /
+                this.pitchX));
+        int lastCol = Math.min(this.cols - 1, (int) Math.floor(
+                (right - this.originX) / this.pitchX));
+        int firstRow = Math.max(0, (int) Math.floor((top - this.originY) /
+                this.pitchY));
+        int lastRow = Math.min(this.rows - 1, (int) Math.floor(
+                (bottom - this.originY) / this.pitchY));
+
+        for (int row = firstRow; row <= lastRow; row++)
+        {
+            float brickTop = this.originY + row * this.pitchY;
+            float brickBottom = brickTop + brickHeight;
+            if (bottom <= brickTop || top >= brickBottom)
+            {
+                continue;
+            }
+            int firstCell = this.rowSlots[row] * this.cols;
+            for (int col = firstCol; col <= lastCol; col++)
+            {
+                int cell = firstCell + col;
+                float brickLeft = this.originX + col * this.pitchX;
+                float brickRight = brickLeft + brickWidth;
+                if (!this.aliveBricks.get(cell) || right <= brickLeft ||
+                        left >= brickRight)
+                {
+                    continue;
+                }
+                Vector2 normal = collisionNormal(left, top, right, bottom,
+                        brickLeft, brickTop, brickRight, brickBottom);
+                Vector2 velocity = ball.getVelocity();
+                if (velocity.x() * normal.x() + velocity.y() * normal.y() < 0)
+                {
+                    ball.bounce(normal);
+                }
+                hit(cell, ball);
+            }
+        }
+    }
+
+    /**
+     * Sweeps a moving box through the field, testing only the bricks in the
+     * cells covered by the whole move.
+     *
+     * @param left   left edge of the moving box at the start of the move.
+     * @param top    top edge of the moving box at the start of the move.
+     * @param width  width of the moving box.
+     * @param height height of the moving box.
+     * @param dx     horizontal displacement of the moving box.
+     * @param dy     vertical displacement of the moving box.
+     * @param sweptCollision keeps the earliest hit, may already hold a hit
+     *                       from other obstacles.
+     * @return the cell of the brick hit first if it is earlier than any hit
+     * already held by sweptCollision, -1 otherwise.
+     */
+    public int sweep(float left, float top, float width, float height,
+                     float dx, float dy, SweptCollision sweptCollision)
+    {
+        float minX = Math.min(left, left + dx);
+        float maxX = Math.max(left, left + dx) + width;
+        float minY = Math.min(top, top + dy);
+        float maxY = Math.max(top, top + dy) + height;
+        float brickWidth = this.brickSize.x();
+        float brickHeight = this.brickSize.y();
+
+        int firstCol = Math.max(0, (int) Math.floor((minX - this.originX) /
+                this.pitchX));
+        int lastCol = Math.min(this.cols - 1, (int) Math.floor(
+                (maxX - this.originX) / this.pitchX));
+        int firstRow = Math.max(0, (int) Math.floor((minY - this.originY) /
+                this.pitchY));
+        int lastRow = Math.min(this.rows - 1, (int) Math.floor(
+                (maxY - this.originY) / this.pitchY));
+
+        int firstHit = -1;
+        for (int row = firstRow; row <= lastRow; row++)
+        {
+            float brickTop = this.originY + row * this.pitchY;
+            int firstCell = this.rowSlots[row] * this.cols;
+            for (int col = firstCol; col <= lastCol; col++)
+            {
+                int cell = firstCell + col;
+                if (!this.aliveBricks.get(cell))
+                {
+                    continue;
+                }
+                float brickLeft = this.originX + col * this.pitchX;
+                if (sweptCollision.sweep(left, top, width, height, dx, dy,
+                        brickLeft, brickTop, brickLeft + brickWidth,
+                        brickTop + brickHeight))
+                {
+                    firstHit = cell;
+                }
+            }
+        }
+        return firstHit;
+    }
+
+    /**
+     * Returns the palette index of a strategy, adding it to the palette the
+     * first time.
+     */
+    private byte paletteId(CollisionStrategy strategy)
+    {
+        Integer id = this.paletteIds.get(strategy);
+        if (id == null)
+        {
+            id = this.paletteIds.size();
+            if (id == MAX_PALETTE_SIZE)
+            {
+                throw new IllegalStateException("more than " +
+                        MAX_PALETTE_SIZE + " brick strategies");
+            }
+            this.palette[id] = strategy;
+            this.paletteIds.put(strategy, id);
+        }
+        return (byte) (int) id;
+    }
+
+    /**
+     * Computes the normal of the brick face the ball hit, along the axis of
+     * least penetration and pointing from the brick towards the ball.
+     */
+    private static Vector2 collisionNormal(float left, float top, float right,
+                                           float bottom, float brickLeft,
+                                           float brickTop, float brickRight,
+                                           float brickBottom)
+    {
+        float overlapX = Math.min(right, brickRight) - Math.max(left, brickLeft);
+        float overlapY = Math.min(bottom, brickBottom) - Math.max(top, brickTop);
+        if (overlapX < overlapY)
+        {
+            return left + right < brickLeft + brickRight ? Vector2.LEFT :
+                    Vector2.RIGHT;
+        }
+        return top + bottom < brickTop + brickBottom ? Vector2.UP :
+                Vector2.DOWN;
+    }
+}
@@ -0,0 +1,129 @@
+package bricker.gameobjects;
+
+/**
+ * A ring buffer of the brick hits of a frame, waiting for their strategies to
+ * be applied. An event is the hit cell and the center of the object that hit
+ * it, stored in parallel arrays that are allocated once and only grow if a
+ * frame hits more bricks than ever before.
+ * @author Elyashiv Eitan
+ */
+class CollisionEventQueue
+{
+    private int[] cells;
+    private float[] hitterX;
+    private float[] hitterY;
+    private int mask;
+    private int head;
+    private int size;
+
+    /**
+     * Constructs an empty queue.
+     *
+     * @param capacity the number of events held before the queue grows,
+     *                 rounded up to a power of two.
+     */
+    CollisionEventQueue(int capacity)
+    {
+        allocate(Integer.highestOneBit(Math.max(1, capacity - 1)) << 1);
+    }
+
+    /**
+     * Adds an event at the tail of the queue.
+     *
+     * @param cell    the hit cell.
+     * @param hitterX horizontal center of the object that hit the brick.
+     * @param hitterY vertical center of the object that hit the brick.
+     */
+    void add(int cell, float hitterX, float hitterY)
+    {
+        if (this.size == this.cells.length)
+        {
+            grow();
+        }
+        int tail = (this.head + this.size) & this.mask;
+        this.cells[tail] = cell;
+        this.hitterX[tail] = hitterX;
+        this.hitterY[tail] = hitterY;
+        this.size++;
+    }
+
+    /**
+     * @return the number of events in the queue.
+     */
+    int size()
+    {
+        return this.size;
+    }
+
+    /**
+     * @return the cell of the event at the head of the queue.
+     */
+    int headCell()
+    {
+        return this.cells[this.head];
+    }
+
+    /**
+     * @return the horizontal hitter center of the event at the head.
+     */
+    float headHitterX()
+    {
+        return this.hitterX[this.head];
+    }
+
+    /**
+     * @return the vertical hitter center of the event at the head.
+     */
+    float headHitterY()
+    {
+        return this.hitterY[this.head];
+    }
+
+    /**
+     * Removes the event at the head of the queue.
+     */
+    void remove()
+    {
+        this.head = (this.head + 1) & this.mask;
+        this.size--;
+    }
+
+    /**
+     * Removes every event.
+     */
+    void clear()
+    {
+        this.head = 0;
+        this.size = 0;
+    }
+
+    /**
+     * Doubles the capacity, moving the events to the start of the arrays.
+     */
+    private void grow()
+    {
+        int[] cells = this.cells;
+        float[] hitterX = this.hitterX;
+        float[] hitterY = this.hitterY;
+        allocate(cells.length * 2);
+        for (int i = 0; i < this.size; i++)
+        {
+            int from = (this.head + i) & (cells.length - 1);
+            this.cells[i] = cells[from];
+            this.hitterX[i] = hitterX[from];
+            this.hitterY[i] = hitterY[from];
+        }
+        this.head = 0;
+    }
+
+    /**
+     * Allocates the arrays.
+     */
+    private void allocate(int capacity)
+    {
+        this.cells = new int[capacity];
+        this.hitterX = new float[capacity];
+        this.hitterY = new float[capacity];
+        this.mask = capacity - 1;
+    }
+}
@@ -1,6 +1,8 @@
 package bricker.gameobjects;
 
 import bricker.main.BrickerGameManager;
+import bricker.utils.LifecycleState;
+import bricker.utils.Recyclable;
 import danogl.GameObject;
 import danogl.collisions.Collision;
 import danogl.gui.rendering.Renderable;
@@ -10,9 +12,12 @@ import danogl.util.Vector2;
  * Represents a heart object in the game that adds health when collected.
  * @author Elyashiv EItan
  */
-public class Heart extends GameObject
+public class Heart extends GameObject implements Recyclable
 {
     BrickerGameManager brickerGameManager;
+    private int registryIndex = -1;
+    private LifecycleState lifecycleState = LifecycleState.RECYCLED;
+    private int lives = 1;
 
     /**
      * Initializes a Heart object.
@@ -29,6 +34,75 @@ public class Heart extends GameObject
         this.brickerGameManager = brickerGameManager;
     }
 
+    /**
+     * Re-arms a pooled heart so it can be added to the game again as if it was
+     * just created.
+     *
+     * @param position The new position of the heart.
+     * @param velocity The new velocity of the heart.
+     * @param renderable The renderable object for visual representation.
+     */
+    public void rearm(Vector2 position, Vector2 velocity, Renderable renderable)
+    {
+        setTopLeftCorner(position);
+        setVelocity(velocity);
+        renderer().setRenderable(renderable);
+        this.lives = 1;
+    }
+
+    /**
+     * @return The number of lives the heart gives when collected.
+     */
+    public int getLives()
+    {
+        return this.lives;
+    }
+
+    /**
+     * @param lives The number of lives the heart gives when collected, more
+     *              than one when several hearts were spawned at one spot.
+     */
+    public void setLives(int lives)
+    {
+        this.lives = lives;
+    }
+
+    /**
+     * @return The heart's slot in its live object registry.
+     */
+    @Override
+    public int getRegistryIndex()
+    {
+        return this.registryIndex;
+    }
+
+    /**
+     * @param registryIndex The heart's new slot in its live object registry.
+     */
+    @Override
+    public void setRegistryIndex(int registryIndex)
+    {
+        this.registryIndex = registryIndex;
+    }
+
+    /**
+     * @return The heart's lifecycle state.
+     */
+    @Override
+    public LifecycleState getLifecycleState()
+    {
+        return this.lifecycleState;
+    }
+
+    /**
+     * @param lifecycleState The heart's new lifecycle state.
+     */
+    @Override
+    public void setLifecycleState(LifecycleState lifecycleState)
+    {
+        this.lifecycleState = lifecycleState;
+    }
+
     /**
      * Handles collision with the paddle, adds health and removes the heart.
      *
@@ -40,7 +114,10 @@ public class Heart extends GameObject
     {
         if (shouldCollideWith(other))
         {
-            this.brickerGameManager.addHeart();
+            for (int i = 0; i < this.lives; i++)
+            {
+                this.brickerGameManager.addHeart();
+            }
             this.brickerGameManager.removeFallenHeart(this);
             this.brickerGameManager.incText();
         }
@@ -16,6 +16,10 @@ import java.awt.event.KeyEvent;
 public class Paddle extends GameObject
 {
     private static final float MOVEMENT_SPEED = 400;
+    private static final Vector2 LEFT_VELOCITY =
+            Vector2.LEFT.mult(MOVEMENT_SPEED);
+    private static final Vector2 RIGHT_VELOCITY =
+            Vector2.RIGHT.mult(MOVEMENT_SPEED);
     private UserInputListener inputListener;
     private Vector2 windowDimensions;
 
@@ -40,8 +44,8 @@ public class Paddle extends GameObject
 
     /**
      * Updates paddle position based on user input, ensuring it stays within window bounds.
-     * Moves left if the left arrow key is pressed and paddle is not at the left edge.
-     * Moves right if the right arrow key is pressed and paddle is not at the right edge.
+     * Moves left if asked to (see isMovingLeft) and paddle is not at the left edge.
+     * Moves right if asked to (see isMovingRight) and paddle is not at the right edge.
      * Updates velocity based on direction and speed, using deltaTime for smooth movement.
      *
      * @param deltaTime Time elapsed since the last frame.
@@ -51,26 +55,77 @@ public class Paddle extends GameObject
     {
         super.update(deltaTime);
 
-        Vector2 movementDir = Vector2.ZERO;
+        int movementDir = 0;
 
         // Check for left movement and ensure it stays within bounds
-        if (inputListener.isKeyPressed(KeyEvent.VK_LEFT))
+        if (isMovingLeft())
         {
             if (getTopLeftCorner().x() > 0)
             {
-                movementDir = movementDir.add(Vector2.LEFT);
+                movementDir--;
             }
         }
 
         // Check for right movement and ensure it stays within bounds
-        if (inputListener.isKeyPressed(KeyEvent.VK_RIGHT))
+        if (isMovingRight())
         {
             if (getTopLeftCorner().x() + getDimensions().x() < windowDimensions.x())
             {
-                movementDir = movementDir.add(Vector2.RIGHT);
+                movementDir++;
             }
         }
-        // Update velocity and position
-        setVelocity(movementDir.mult(MOVEMENT_SPEED));
+        // Update velocity and position, with no per-frame vector allocation
+        if (movementDir < 0)
+        {
+            setVelocity(LEFT_VELOCITY);
+        }
+        else if (movementDir > 0)
+        {
+            setVelocity(RIGHT_VELOCITY);
+        }
+        else
+        {
+            setVelocity(Vector2.ZERO);
+        }
+    }
+
+    /**
+     * Tells whether the paddle is asked to move left this frame. A paddle
+     * follows the arrow keys; subclasses may be driven by something else.
+     *
+     * @return true if the left arrow key is pressed.
+     */
+    protected boolean isMovingLeft()
+    {
+        return inputListener.isKeyPressed(KeyEvent.VK_LEFT);
+    }
+
+    /**
+     * Tells whether the paddle is asked to move right this frame.
+     *
+     * @return true if the right arrow key is pressed.
+     */
+    protected boolean isMovingRight()
+    {
+        return inputListener.isKeyPressed(KeyEvent.VK_RIGHT);
+    }
+
+    /**
+     * @return the speed of the paddle, in pixels per second.
+     */
+    public static float getMovementSpeed()
+    {
+        return MOVEMENT_SPEED;
+    }
+
+    /**
+     * Called when a ball's swept move hits this paddle, before the engine's
+     * own collision pass gets to see the overlap.
+     *
+     * @param ball The ball that hit the paddle, or null for a puck simulated
+     *             by the {@link PuckEngine}.
+     */
+    public void onBallHit(Ball ball)
+    {
     }
 }
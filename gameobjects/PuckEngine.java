@@ -0,0 +1,352 @@
+package bricker.gameobjects;
+
+import bricker.utils.SoundMixer;
+import danogl.GameObject;
+import danogl.gui.Sound;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+import java.awt.Graphics2D;
+import java.util.Arrays;
+
+/**
+ * Simulates all pucks as one game object, keeping their positions and
+ * velocities in primitive float arrays (structure of arrays) instead of one
+ * {@link Ball} game object per puck. Integration and the wall and paddle
+ * tests run in bulk through a {@link PuckKernel}, which uses the Vector API
+ * when the {@code jdk.incubator.vector} module is present and plain loops
+ * otherwise.
+ *
+ * Pucks still collide with the bricks through the {@link BrickField}, firing
+ * each brick's collision strategy, and still ask the sound mixer for the
+ * collision sound on every bounce. A puck that falls below the window is removed.
+ * @author Elyashiv Eitan
+ */
+public class PuckEngine extends GameObject
+{
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final int INITIAL_CAPACITY = 64;
+    private static final float CONTACT_SKIN = 0.01f;
+
+    private final PuckKernel kernel;
+    private final float puckSize;
+    private final Vector2 puckDimensions;
+    private final float windowWidth;
+    private final float windowHeight;
+    private final Sound collisionSound;
+    private final SoundMixer soundMixer;
+    private final BrickField brickField;
+    private final Paddle userPaddle;
+    private final GameObject probe;
+    private final SweptCollision sweptCollision = new SweptCollision();
+    private Paddle temporaryPaddle;
+    private float[] x = new float[INITIAL_CAPACITY];
+    private float[] y = new float[INITIAL_CAPACITY];
+    private float[] vx = new float[INITIAL_CAPACITY];
+    private float[] vy = new float[INITIAL_CAPACITY];
+    private float[] previousX = new float[INITIAL_CAPACITY];
+    private float[] previousY = new float[INITIAL_CAPACITY];
+    private int puckCounter;
+
+    /**
+     * Constructs an empty puck engine covering the window.
+     *
+     * @param windowDimensions the dimensions of the game window.
+     * @param puckDimensions   the width and height of a puck.
+     * @param puckRenderable   the visual representation of a puck. Can be null.
+     * @param collisionSound   the sound to play on each bounce. Can be null.
+     * @param soundMixer       plays the collision sounds.
+     * @param brickField       the brick field the pucks collide with.
+     * @param userPaddle       the user's paddle.
+     */
+    public PuckEngine(Vector2 windowDimensions, Vector2 puckDimensions,
+                      Renderable puckRenderable, Sound collisionSound,
+                      SoundMixer soundMixer, BrickField brickField,
+                      Paddle userPaddle)
+    {
+        super(Vector2.ZERO, windowDimensions, null);
+        this.kernel = createKernel();
+        this.puckDimensions = puckDimensions;
+        this.puckSize = puckDimensions.x();
+        this.windowWidth = windowDimensions.x();
+        this.windowHeight = windowDimensions.y();
+        this.collisionSound = collisionSound;
+        this.soundMixer = soundMixer;
+        this.brickField = brickField;
+        this.userPaddle = userPaddle;
+        this.probe = new GameObject(Vector2.ZERO, puckDimensions, null);
+        if (puckRenderable != null)
+        {
+            renderer().setRenderable(new PuckRenderable(puckRenderable));
+        }
+    }
+
+    /**
+     * Creates the Vector API kernel if its module is present, the scalar
+     * kernel otherwise.
+     *
+     * @return the kernel to use on this JVM.
+     */
+    public static PuckKernel createKernel()
+    {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent())
+        {
+            try
+            {
+                return new VectorPuckKernel();
+            }
+            catch (LinkageError error)
+            {
+                // Fall through to the scalar kernel
+            }
+        }
+        return new ScalarPuckKernel();
+    }
+
+    /**
+     * Adds a puck.
+     *
+     * @param topLeftX   horizontal position of the puck's top-left corner.
+     * @param topLeftY   vertical position of the puck's top-left corner.
+     * @param velocityX  horizontal velocity of the puck.
+     * @param velocityY  vertical velocity of the puck.
+     */
+    public void spawn(float topLeftX, float topLeftY, float velocityX,
+                      float velocityY)
+    {
+        if (this.puckCounter == this.x.length)
+        {
+            grow();
+        }
+        int index = this.puckCounter++;
+        this.x[index] = topLeftX;
+        this.y[index] = topLeftY;
+        this.vx[index] = velocityX;
+        this.vy[index] = velocityY;
+    }
+
+    /**
+     * Makes room for more pucks at once, so spawning them does not grow the
+     * arrays one doubling at a time.
+     *
+     * @param extraPucks the number of pucks about to be spawned.
+     */
+    public void ensureCapacity(int extraPucks)
+    {
+        while (this.puckCounter + extraPucks > this.x.length)
+        {
+            grow();
+        }
+    }
+
+    /**
+     * Copies the position and velocity of every puck into the given arrays,
+     * which must hold at least {@link #size()} elements.
+     *
+     * @param topLeftX  receives the horizontal positions of the top-left corners.
+     * @param topLeftY  receives the vertical positions of the top-left corners.
+     * @param velocityX receives the horizontal velocities.
+     * @param velocityY receives the vertical velocities.
+     */
+    public void copyTo(float[] topLeftX, float[] topLeftY, float[] velocityX,
+                       float[] velocityY)
+    {
+        System.arraycopy(this.x, 0, topLeftX, 0, this.puckCounter);
+        System.arraycopy(this.y, 0, topLeftY, 0, this.puckCounter);
+        System.arraycopy(this.vx, 0, velocityX, 0, this.puckCounter);
+        System.arraycopy(this.vy, 0, velocityY, 0, this.puckCounter);
+    }
+
+    /**
+     * Removes every puck.
+     */
+    public void clear()
+    {
+        this.puckCounter = 0;
+    }
+
+    /**
+     * @return the number of pucks in the game.
+     */
+    public int size()
+    {
+        return this.puckCounter;
+    }
+
+    /**
+     * Sets the temporary paddle the pucks bounce off, or null if there is none.
+     *
+     * @param temporaryPaddle the temporary paddle in the game, or null.
+     */
+    public void setTemporaryPaddle(Paddle temporaryPaddle)
+    {
+        this.temporaryPaddle = temporaryPaddle;
+    }
+
+    /**
+     * The puck engine never takes part in the engine's collision pass.
+     */
+    @Override
+    public boolean shouldCollideWith(GameObject other)
+    {
+        return false;
+    }
+
+    /**
+     * Moves every puck, bounces them off the walls, the paddles and the
+     * bricks, and removes the ones that fell below the window.
+     *
+     * @param deltaTime time elapsed since the last frame.
+     */
+    @Override
+    public void update(float deltaTime)
+    {
+        super.update(deltaTime);
+        int count = this.puckCounter;
+        System.arraycopy(this.x, 0, this.previousX, 0, count);
+        System.arraycopy(this.y, 0, this.previousY, 0, count);
+
+        this.kernel.integrate(this.x, this.y, this.vx, this.vy, count,
+                deltaTime);
+        int bounces = this.kernel.bounceWalls(this.x, this.y, this.vx, this.vy,
+                count, 0, this.windowWidth - this.puckSize, 0);
+        bounces += bouncePaddle(this.userPaddle, count);
+        bounces += bouncePaddle(this.temporaryPaddle, count);
+        bounces += collideWithBricks(count);
+        this.soundMixer.play(this.collisionSound, bounces);
+        removeFallenPucks();
+    }
+
+    /**
+     * Bounces the pucks off a paddle, if it is in the game.
+     *
+     * @return the number of bounces.
+     */
+    private int bouncePaddle(Paddle paddle, int count)
+    {
+        if (paddle == null)
+        {
+            return 0;
+        }
+        Vector2 topLeft = paddle.getTopLeftCorner();
+        Vector2 dimensions = paddle.getDimensions();
+        int bounces = this.kernel.bouncePaddle(this.x, this.y, this.vy, count,
+                this.puckSize, topLeft.x(), topLeft.y(),
+                topLeft.x() + dimensions.x(), topLeft.y() + dimensions.y());
+        // Stop once a temporary paddle removed itself
+        for (int i = 0; i < bounces && (paddle == this.userPaddle ||
+                paddle == this.temporaryPaddle); i++)
+        {
+            paddle.onBallHit(null);
+        }
+        return bounces;
+    }
+
+    /**
+     * Sweeps each puck's move through the brick field. A puck that hits a brick
+     * is placed at the contact point and bounces, and the brick is hit with a
+     * probe object standing in for the puck. The hits are only queued: their
+     * strategies run after the physics pass.
+     *
+     * @return the number of bounces.
+     */
+    private int collideWithBricks(int count)
+    {
+        int bounces = 0;
+        for (int i = 0; i < count; i++)
+        {
+            float dx = this.x[i] - this.previousX[i];
+            float dy = this.y[i] - this.previousY[i];
+            this.sweptCollision.reset();
+            int cell = this.brickField.sweep(this.previousX[i],
+                    this.previousY[i], this.puckSize, this.puckSize, dx, dy,
+                    this.sweptCollision);
+            if (cell < 0)
+            {
+                continue;
+            }
+            float time = this.sweptCollision.getTime();
+            Vector2 normal = this.sweptCollision.getNormal();
+            this.x[i] = this.previousX[i] + dx * time + normal.x() *
+                    CONTACT_SKIN;
+            this.y[i] = this.previousY[i] + dy * time + normal.y() *
+                    CONTACT_SKIN;
+            if (normal.x() != 0)
+            {
+                this.vx[i] = -this.vx[i];
+            }
+            else
+            {
+                this.vy[i] = -this.vy[i];
+            }
+            bounces++;
+            this.probe.setTopLeftCorner(new Vector2(this.x[i], this.y[i]));
+            this.probe.setVelocity(new Vector2(this.vx[i], this.vy[i]));
+            this.brickField.hit(cell, this.probe);
+        }
+        return bounces;
+    }
+
+    /**
+     * Removes the pucks whose center is below the window, swapping the last
+     * puck into the freed slot.
+     */
+    private void removeFallenPucks()
+    {
+        for (int i = this.puckCounter - 1; i >= 0; i--)
+        {
+            if (this.y[i] + this.puckSize / 2 > this.windowHeight)
+            {
+                int last = --this.puckCounter;
+                this.x[i] = this.x[last];
+                this.y[i] = this.y[last];
+                this.vx[i] = this.vx[last];
+                this.vy[i] = this.vy[last];
+            }
+        }
+    }
+
+    /**
+     * Doubles the capacity of the puck arrays.
+     */
+    private void grow()
+    {
+        int capacity = this.x.length * 2;
+        this.x = Arrays.copyOf(this.x, capacity);
+        this.y = Arrays.copyOf(this.y, capacity);
+        this.vx = Arrays.copyOf(this.vx, capacity);
+        this.vy = Arrays.copyOf(this.vy, capacity);
+        this.previousX = new float[capacity];
+        this.previousY = new float[capacity];
+    }
+
+    /**
+     * Draws every puck with the puck renderable.
+     */
+    private class PuckRenderable implements Renderable
+    {
+        private final Renderable puckRenderable;
+
+        /**
+         * @param puckRenderable the visual representation of a single puck.
+         */
+        PuckRenderable(Renderable puckRenderable)
+        {
+            this.puckRenderable = puckRenderable;
+        }
+
+        @Override
+        public void render(Graphics2D g, Vector2 topLeftCorner,
+                           Vector2 dimensions, double degreesCounterClockwise,
+                           boolean isFlippedHorizontally,
+                           boolean isFlippedVertically, double opaqueness)
+        {
+            for (int i = 0; i < puckCounter; i++)
+            {
+                this.puckRenderable.render(g, new Vector2(
+                                topLeftCorner.x() + x[i],
+                                topLeftCorner.y() + y[i]), puckDimensions,
+                        0, false, false, opaqueness);
+            }
+        }
+    }
+}
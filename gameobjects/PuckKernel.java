@@ -0,0 +1,57 @@
+package bricker.gameobjects;
+
+/**
+ * The bulk operations of the {@link PuckEngine}, applied to every puck at
+ * once over structure-of-arrays state: positions (top-left corners) and
+ * velocities in separate primitive arrays.
+ * @author Elyashiv Eitan
+ */
+public interface PuckKernel
+{
+    /**
+     * Moves every puck by its velocity.
+     *
+     * @param x         horizontal positions.
+     * @param y         vertical positions.
+     * @param vx        horizontal velocities.
+     * @param vy        vertical velocities.
+     * @param count     number of pucks, a prefix of the arrays.
+     * @param deltaTime time elapsed since the last frame.
+     */
+    void integrate(float[] x, float[] y, float[] vx, float[] vy, int count,
+                   float deltaTime);
+
+    /**
+     * Bounces every puck that left the play area through the left, right or
+     * top wall and is still moving outwards.
+     *
+     * @param x     horizontal positions.
+     * @param y     vertical positions.
+     * @param vx    horizontal velocities.
+     * @param vy    vertical velocities.
+     * @param count number of pucks.
+     * @param minX  the smallest position inside the left wall.
+     * @param maxX  the largest position inside the right wall.
+     * @param minY  the smallest position inside the top wall.
+     * @return the number of bounces.
+     */
+    int bounceWalls(float[] x, float[] y, float[] vx, float[] vy, int count,
+                    float minX, float maxX, float minY);
+
+    /**
+     * Bounces every puck that overlaps a paddle while moving down.
+     *
+     * @param x      horizontal positions.
+     * @param y      vertical positions.
+     * @param vy     vertical velocities.
+     * @param count  number of pucks.
+     * @param size   the width and height of a puck.
+     * @param left   left edge of the paddle.
+     * @param top    top edge of the paddle.
+     * @param right  right edge of the paddle.
+     * @param bottom bottom edge of the paddle.
+     * @return the number of bounces.
+     */
+    int bouncePaddle(float[] x, float[] y, float[] vy, int count, float size,
+                     float left, float top, float right, float bottom);
+}
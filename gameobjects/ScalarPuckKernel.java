@@ -0,0 +1,68 @@
+package bricker.gameobjects;
+
+/**
+ * The plain-loop {@link PuckKernel}, used when the Vector API is not
+ * available. The JIT may still auto-vectorize the integration loop.
+ * @author Elyashiv Eitan
+ */
+public class ScalarPuckKernel implements PuckKernel
+{
+    /**
+     * Moves every puck by its velocity.
+     */
+    @Override
+    public void integrate(float[] x, float[] y, float[] vx, float[] vy,
+                          int count, float deltaTime)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            x[i] += vx[i] * deltaTime;
+            y[i] += vy[i] * deltaTime;
+        }
+    }
+
+    /**
+     * Bounces pucks off the left, right and top walls.
+     */
+    @Override
+    public int bounceWalls(float[] x, float[] y, float[] vx, float[] vy,
+                           int count, float minX, float maxX, float minY)
+    {
+        int bounces = 0;
+        for (int i = 0; i < count; i++)
+        {
+            if ((x[i] < minX && vx[i] < 0) || (x[i] > maxX && vx[i] > 0))
+            {
+                vx[i] = -vx[i];
+                bounces++;
+            }
+            if (y[i] < minY && vy[i] < 0)
+            {
+                vy[i] = -vy[i];
+                bounces++;
+            }
+        }
+        return bounces;
+    }
+
+    /**
+     * Bounces pucks off a paddle.
+     */
+    @Override
+    public int bouncePaddle(float[] x, float[] y, float[] vy, int count,
+                            float size, float left, float top, float right,
+                            float bottom)
+    {
+        int bounces = 0;
+        for (int i = 0; i < count; i++)
+        {
+            if (vy[i] > 0 && x[i] + size > left && x[i] < right &&
+                    y[i] + size > top && y[i] < bottom)
+            {
+                vy[i] = -vy[i];
+                bounces++;
+            }
+        }
+        return bounces;
+    }
+}
@@ -0,0 +1,184 @@
+package bricker.gameobjects;
+
+import danogl.GameObject;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The background and the brick field, composited into one offscreen image
+ * and drawn with a single blit per frame. The bricks themselves are not in
+ * the game object collection; the image is painted once, on first render,
+ * and afterwards only the region of a removed brick is repainted. The cost
+ * of a frame therefore does not depend on the number of bricks.
+ * @author Elyashiv Eitan
+ */
+public class StaticLayer extends GameObject
+{
+    private static final double OPAQUE = 1;
+    private static final int MAX_DIRTY_REGIONS = 64;
+
+    private final Renderable backgroundRenderable;
+    private final Renderable brickRenderable;
+    private final BrickField brickField;
+    private final List<Rectangle> dirtyRegions = new ArrayList<>();
+    private BufferedImage layerImage;
+
+    /**
+     * Constructs the static layer covering the window.
+     *
+     * @param windowDimensions     the dimensions of the game window.
+     * @param backgroundRenderable the background image. Can be null.
+     * @param brickRenderable      the image of a brick. Can be null.
+     * @param brickField           the bricks to draw.
+     */
+    public StaticLayer(Vector2 windowDimensions, Renderable backgroundRenderable,
+                       Renderable brickRenderable, BrickField brickField)
+    {
+        super(Vector2.ZERO, windowDimensions, null);
+        this.backgroundRenderable = backgroundRenderable;
+        this.brickRenderable = brickRenderable;
+        this.brickField = brickField;
+        renderer().setRenderable(new LayerRenderable());
+    }
+
+    /**
+     * Marks the region of a brick that left the field for repainting.
+     *
+     * @param cell the cell of the removed brick.
+     */
+    public void invalidate(int cell)
+    {
+        float cellLeft = this.brickField.cellLeft(cell);
+        float cellTop = this.brickField.cellTop(cell);
+        Vector2 dimensions = this.brickField.getBrickSize();
+        int left = (int) Math.floor(cellLeft);
+        int top = (int) Math.floor(cellTop);
+        addDirtyRegion(new Rectangle(left, top,
+                (int) Math.ceil(cellLeft + dimensions.x()) - left,
+                (int) Math.ceil(cellTop + dimensions.y()) - top));
+    }
+
+    /**
+     * Marks a band of brick rows for repainting, across the whole width,
+     * e.g. after rows of the field moved.
+     *
+     * @param firstRow the top screen row of the band.
+     * @param lastRow  the bottom screen row of the band.
+     */
+    public void invalidateRows(int firstRow, int lastRow)
+    {
+        int top = (int) Math.floor(this.brickField.rowTop(firstRow));
+        int bottom = (int) Math.ceil(this.brickField.rowTop(lastRow) +
+                this.brickField.getBrickSize().y());
+        addDirtyRegion(new Rectangle(0, top,
+                (int) Math.ceil(getDimensions().x()), bottom - top));
+    }
+
+    /**
+     * Marks the whole layer for repainting, e.g. after the bricks were
+     * replaced at once.
+     */
+    public void invalidateAll()
+    {
+        this.dirtyRegions.clear();
+        Vector2 dimensions = getDimensions();
+        this.dirtyRegions.add(new Rectangle(0, 0,
+                (int) Math.ceil(dimensions.x()),
+                (int) Math.ceil(dimensions.y())));
+    }
+
+    /**
+     * Adds a region to repaint. Past a bound, the regions are replaced by the
+     * whole layer, so they cannot pile up while the layer is not rendered.
+     */
+    private void addDirtyRegion(Rectangle region)
+    {
+        if (this.dirtyRegions.size() >= MAX_DIRTY_REGIONS)
+        {
+            invalidateAll();
+            return;
+        }
+        this.dirtyRegions.add(region);
+    }
+
+    /**
+     * The static layer never takes part in the engine's collision pass.
+     */
+    @Override
+    public boolean shouldCollideWith(GameObject other)
+    {
+        return false;
+    }
+
+    /**
+     * Paints the background and the bricks overlapping a region of the image.
+     */
+    private void paint(Graphics2D g, Rectangle region)
+    {
+        g.setClip(region);
+        if (this.backgroundRenderable != null)
+        {
+            this.backgroundRenderable.render(g, Vector2.ZERO, getDimensions(),
+                    0, false, false, OPAQUE);
+        }
+        if (this.brickRenderable != null)
+        {
+            Vector2 brickSize = this.brickField.getBrickSize();
+            this.brickField.forEachBrick(region.x, region.y,
+                    region.x + region.width, region.y + region.height,
+                    cell -> this.brickRenderable.render(g, new Vector2(
+                            this.brickField.cellLeft(cell),
+                            this.brickField.cellTop(cell)), brickSize, 0,
+                            false, false, OPAQUE));
+        }
+    }
+
+    /**
+     * Creates the layer image on first render, compatible with the surface
+     * it is drawn on, and paints all of it.
+     */
+    private void createLayerImage(Graphics2D g)
+    {
+        int width = (int) Math.ceil(getDimensions().x());
+        int height = (int) Math.ceil(getDimensions().y());
+        this.layerImage = g.getDeviceConfiguration().createCompatibleImage(
+                width, height);
+        this.dirtyRegions.clear();
+        this.dirtyRegions.add(new Rectangle(0, 0, width, height));
+    }
+
+    /**
+     * Repaints the dirty regions of the layer image and blits it.
+     */
+    private class LayerRenderable implements Renderable
+    {
+        @Override
+        public void render(Graphics2D g, Vector2 topLeftCorner,
+                           Vector2 dimensions, double degreesCounterClockwise,
+                           boolean isFlippedHorizontally,
+                           boolean isFlippedVertically, double opaqueness)
+        {
+            if (layerImage == null)
+            {
+                createLayerImage(g);
+            }
+            if (!dirtyRegions.isEmpty())
+            {
+                Graphics2D layerGraphics = layerImage.createGraphics();
+                for (Rectangle region : dirtyRegions)
+                {
+                    paint(layerGraphics, region);
+                }
+                layerGraphics.dispose();
+                dirtyRegions.clear();
+            }
+            g.drawImage(layerImage, Math.round(topLeftCorner.x()),
+                    Math.round(topLeftCorner.y()), null);
+        }
+    }
+}
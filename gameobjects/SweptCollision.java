@@ -0,0 +1,143 @@
+package bricker.gameobjects;
+
+import danogl.util.Vector2;
+
+/**
+ * Continuous (swept) collision detection between a moving axis-aligned box and
+ * static axis-aligned boxes. A sweep finds the earliest time along the
+ * box's displacement at which it touches an obstacle, so fast balls cannot
+ * tunnel through thin bricks or the paddle between two frames.
+ *
+ * An instance keeps the earliest hit found since the last {@link #reset()},
+ * which lets callers test many obstacles without allocating.
+ * @author Elyashiv Eitan
+ */
+public class SweptCollision
+{
+    private static final float NO_HIT = Float.POSITIVE_INFINITY;
+
+    private float time = NO_HIT;
+    private Vector2 normal;
+
+    /**
+     * Forgets the earliest hit found so far.
+     */
+    public void reset()
+    {
+        this.time = NO_HIT;
+        this.normal = null;
+    }
+
+    /**
+     * @return true if a hit was found since the last reset.
+     */
+    public boolean hasHit()
+    {
+        return this.time != NO_HIT;
+    }
+
+    /**
+     * @return the time of the earliest hit, as a fraction of the displacement
+     * in [0, 1].
+     */
+    public float getTime()
+    {
+        return this.time;
+    }
+
+    /**
+     * @return the normal of the obstacle face hit first, pointing towards the
+     * moving box.
+     */
+    public Vector2 getNormal()
+    {
+        return this.normal;
+    }
+
+    /**
+     * Sweeps a moving box against a static box. If they touch earlier than
+     * the earliest hit found so far, the hit is recorded.
+     *
+     * @param left   left edge of the moving box at the start of the move.
+     * @param top    top edge of the moving box at the start of the move.
+     * @param width  width of the moving box.
+     * @param height height of the moving box.
+     * @param dx     horizontal displacement of the moving box.
+     * @param dy     vertical displacement of the moving box.
+     * @param obstacleLeft   left edge of the static box.
+     * @param obstacleTop    top edge of the static box.
+     * @param obstacleRight  right edge of the static box.
+     * @param obstacleBottom bottom edge of the static box.
+     * @return true if this obstacle is the earliest hit so far.
+     */
+    public boolean sweep(float left, float top, float width, float height,
+                         float dx, float dy, float obstacleLeft,
+                         float obstacleTop, float obstacleRight,
+                         float obstacleBottom)
+    {
+        float right = left + width;
+        float bottom = top + height;
+
+        float entryX;
+        float exitX;
+        if (dx > 0)
+        {
+            entryX = (obstacleLeft - right) / dx;
+            exitX = (obstacleRight - left) / dx;
+        }
+        else if (dx < 0)
+        {
+            entryX = (obstacleRight - left) / dx;
+            exitX = (obstacleLeft - right) / dx;
+        }
+        else if (right > obstacleLeft && left < obstacleRight)
+        {
+            entryX = Float.NEGATIVE_INFINITY;
+            exitX = Float.POSITIVE_INFINITY;
+        }
+        else
+        {
+            return false;
+        }
+
+        float entryY;
+        float exitY;
+        if (dy > 0)
+        {
+            entryY = (obstacleTop - bottom) / dy;
+            exitY = (obstacleBottom - top) / dy;
+        }
+        else if (dy < 0)
+        {
+            entryY = (obstacleBottom - top) / dy;
+            exitY = (obstacleTop - bottom) / dy;
+        }
+        else if (bottom > obstacleTop && top < obstacleBottom)
+        {
+            entryY = Float.NEGATIVE_INFINITY;
+            exitY = Float.POSITIVE_INFINITY;
+        }
+        else
+        {
+            return false;
+        }
+
+        float entry = Math.max(entryX, entryY);
+        float exit = Math.min(exitX, exitY);
+        // Boxes that already overlap at the start are left to the overlap test
+        if (entry > exit || entry < 0 || entry > 1 || entry >= this.time)
+        {
+            return false;
+        }
+        this.time = entry;
+        if (entryX > entryY)
+        {
+            this.normal = dx > 0 ? Vector2.LEFT : Vector2.RIGHT;
+        }
+        else
+        {
+            this.normal = dy > 0 ? Vector2.UP : Vector2.DOWN;
+        }
+        return true;
+    }
+}
@@ -47,7 +47,45 @@ public class TemporaryPaddle extends Paddle
     public void onCollisionEnter(GameObject other, Collision collision)
     {
         super.onCollisionEnter(other, collision);
+        registerHit();
+    }
+
+    /**
+     * Counts a ball hit found by the swept collision test, exactly like an
+     * engine collision.
+     *
+     * @param ball The ball that hit the paddle.
+     */
+    @Override
+    public void onBallHit(Ball ball)
+    {
+        registerHit();
+    }
+
+    /**
+     * @return The number of hits left before the paddle is removed.
+     */
+    public int getHitsLeft()
+    {
+        return this.paddleCounter;
+    }
 
+    /**
+     * Sets the number of hits left before the paddle is removed, e.g. from a
+     * saved game.
+     *
+     * @param hitsLeft A number of hits, at least 1.
+     */
+    public void setHitsLeft(int hitsLeft)
+    {
+        this.paddleCounter = hitsLeft;
+    }
+
+    /**
+     * Decreases the paddle counter and removes the paddle when it reaches 0.
+     */
+    private void registerHit()
+    {
         // Delete the object
         this.paddleCounter--;
         if (this.paddleCounter == 0)
@@ -0,0 +1,123 @@
+package bricker.gameobjects;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The {@link PuckKernel} built on the incubating Vector API
+ * ({@code jdk.incubator.vector}), processing as many pucks per instruction as
+ * the CPU's preferred vector width allows. The tail that does not fill a
+ * whole vector is handled by plain loops.
+ *
+ * Only load this class when the {@code jdk.incubator.vector} module is
+ * present, see {@link PuckEngine#createKernel()}.
+ * @author Elyashiv Eitan
+ */
+public class VectorPuckKernel implements PuckKernel
+{
+    private static final VectorSpecies<Float> SPECIES =
+            FloatVector.SPECIES_PREFERRED;
+
+    /**
+     * Moves every puck by its velocity.
+     */
+    @Override
+    public void integrate(float[] x, float[] y, float[] vx, float[] vy,
+                          int count, float deltaTime)
+    {
+        int bound = SPECIES.loopBound(count);
+        for (int i = 0; i < bound; i += SPECIES.length())
+        {
+            FloatVector.fromArray(SPECIES, vx, i)
+                    .mul(deltaTime).add(FloatVector.fromArray(SPECIES, x, i))
+                    .intoArray(x, i);
+            FloatVector.fromArray(SPECIES, vy, i)
+                    .mul(deltaTime).add(FloatVector.fromArray(SPECIES, y, i))
+                    .intoArray(y, i);
+        }
+        for (int i = bound; i < count; i++)
+        {
+            x[i] += vx[i] * deltaTime;
+            y[i] += vy[i] * deltaTime;
+        }
+    }
+
+    /**
+     * Bounces pucks off the left, right and top walls.
+     */
+    @Override
+    public int bounceWalls(float[] x, float[] y, float[] vx, float[] vy,
+                           int count, float minX, float maxX, float minY)
+    {
+        int bounces = 0;
+        int bound = SPECIES.loopBound(count);
+        for (int i = 0; i < bound; i += SPECIES.length())
+        {
+            FloatVector xs = FloatVector.fromArray(SPECIES, x, i);
+            FloatVector vxs = FloatVector.fromArray(SPECIES, vx, i);
+            VectorMask<Float> flipX = xs.lt(minX)
+                    .and(vxs.lt(0f))
+                    .or(xs.compare(VectorOperators.GT, maxX)
+                            .and(vxs.compare(VectorOperators.GT, 0f)));
+            vxs.neg().intoArray(vx, i, flipX);
+
+            FloatVector ys = FloatVector.fromArray(SPECIES, y, i);
+            FloatVector vys = FloatVector.fromArray(SPECIES, vy, i);
+            VectorMask<Float> flipY = ys.lt(minY).and(vys.lt(0f));
+            vys.neg().intoArray(vy, i, flipY);
+
+            bounces += flipX.trueCount() + flipY.trueCount();
+        }
+        for (int i = bound; i < count; i++)
+        {
+            if ((x[i] < minX && vx[i] < 0) || (x[i] > maxX && vx[i] > 0))
+            {
+                vx[i] = -vx[i];
+                bounces++;
+            }
+            if (y[i] < minY && vy[i] < 0)
+            {
+                vy[i] = -vy[i];
+                bounces++;
+            }
+        }
+        return bounces;
+    }
+
+    /**
+     * Bounces pucks off a paddle.
+     */
+    @Override
+    public int bouncePaddle(float[] x, float[] y, float[] vy, int count,
+                            float size, float left, float top, float right,
+                            float bottom)
+    {
+        int bounces = 0;
+        int bound = SPECIES.loopBound(count);
+        for (int i = 0; i < bound; i += SPECIES.length())
+        {
+            FloatVector xs = FloatVector.fromArray(SPECIES, x, i);
+            FloatVector ys = FloatVector.fromArray(SPECIES, y, i);
+            FloatVector vys = FloatVector.fromArray(SPECIES, vy, i);
+            VectorMask<Float> hit = vys.compare(VectorOperators.GT, 0f)
+                    .and(xs.add(size).compare(VectorOperators.GT, left))
+                    .and(xs.lt(right))
+                    .and(ys.add(size).compare(VectorOperators.GT, top))
+                    .and(ys.lt(bottom));
+            vys.neg().intoArray(vy, i, hit);
+            bounces += hit.trueCount();
+        }
+        for (int i = bound; i < count; i++)
+        {
+            if (vy[i] > 0 && x[i] + size > left && x[i] < right &&
+                    y[i] + size > top && y[i] < bottom)
+            {
+                vy[i] = -vy[i];
+                bounces++;
+            }
+        }
+        return bounces;
+    }
+}
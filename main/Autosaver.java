@@ -0,0 +1,119 @@
+package bricker.main;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Writes game snapshots to a file on a thread of its own, so the game loop
+ * never waits on encoding or disk I/O. Handing over a snapshot never blocks:
+ * if the previous one is still waiting to be written it is replaced, since
+ * only the latest state is worth saving.
+ * @author Elyashiv Eitan
+ */
+class Autosaver
+{
+    private static final String THREAD_NAME = "autosave";
+
+    private final Path path;
+    private final AtomicReference<GameSnapshot> pending =
+            new AtomicReference<>();
+    private final AtomicLong saves = new AtomicLong();
+    private final AtomicLong skips = new AtomicLong();
+    private final Object lock = new Object();
+    private Thread saverThread;
+
+    /**
+     * Constructs an autosaver. Its thread starts on the first snapshot.
+     *
+     * @param path The file the snapshots are written to.
+     */
+    Autosaver(Path path)
+    {
+        this.path = path;
+    }
+
+    /**
+     * Hands over a snapshot to be written.
+     *
+     * @param snapshot A snapshot the game no longer touches.
+     */
+    void save(GameSnapshot snapshot)
+    {
+        if (this.pending.getAndSet(snapshot) != null)
+        {
+            this.skips.incrementAndGet();
+        }
+        synchronized (this.lock)
+        {
+            if (this.saverThread == null)
+            {
+                this.saverThread = new Thread(this::run, THREAD_NAME);
+                this.saverThread.setDaemon(true);
+                this.saverThread.start();
+            }
+            this.lock.notify();
+        }
+    }
+
+    /**
+     * @return The file the snapshots are written to.
+     */
+    Path getPath()
+    {
+        return this.path;
+    }
+
+    /**
+     * @return The number of snapshots written so far.
+     */
+    long getSaveCounter()
+    {
+        return this.saves.get();
+    }
+
+    /**
+     * @return The number of snapshots replaced by a newer one before they
+     * were written.
+     */
+    long getSkipCounter()
+    {
+        return this.skips.get();
+    }
+
+    /**
+     * The loop of the saver thread: waits for a snapshot and writes it.
+     */
+    private void run()
+    {
+        while (true)
+        {
+            GameSnapshot snapshot;
+            synchronized (this.lock)
+            {
+                while ((snapshot = this.pending.getAndSet(null)) == null)
+                {
+                    try
+                    {
+                        this.lock.wait();
+                    }
+                    catch (InterruptedException exception)
+                    {
+                        return;
+                    }
+                }
+            }
+            try
+            {
+                snapshot.write(this.path);
+                this.saves.incrementAndGet();
+            }
+            catch (IOException exception)
+            {
+                System.err.println("Could not autosave the game: " +
+                        exception.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package bricker.main;
+
+import bricker.brick_strategies.StrategyTable;
+import bricker.utils.FrameProfiler;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Plays many independent seeded games at once, with a scripted paddle that
+ * follows the ball, to compare strategy weight tables without playing by
+ * hand. Games are spread over a fork-join pool; each game keeps all of its
+ * mutable state to itself, down to a frame profiler of its own that is left
+ * off, and games only share immutable data: the strategy table of their
+ * configuration and the decoded assets.
+ *
+ * Every configuration plays the same seeds, so their differences come from
+ * the weights and not from luck. The report of a configuration is the win
+ * rate, the session length, the puck peaks, the turbo uptime and the hearts
+ * collected.
+ * @author Elyashiv Eitan
+ */
+public class BalanceRunner
+{
+    // Final definition
+    private static final int DEFAULT_GAMES = 1_000;
+    private static final int DEFAULT_MAX_FRAMES = 60 * 60 * 5;
+    private static final float DELTA_TIME = 1f / 60;
+    private static final int GAMES_PER_TASK = 4;
+    private static final long SEED_STRIDE = 0x9E3779B97F4A7C15L;
+    private static final double NANOS_IN_SECOND = 1e9;
+    private static final String CONFIG_SEPARATOR = "=";
+
+    // Variable definition
+    private final int games;
+    private final int maxFrames;
+    private final long seed;
+    private final int brickRows;
+    private final int brickCols;
+    private final ForkJoinPool pool;
+
+    /**
+     * Compares strategy weight tables.
+     * Arguments: [games [max frames [seed [threads]]]] followed by any number
+     * of configurations written as name=w1,w2,... in the order of
+     * {@link bricker.brick_strategies.StrategyType}. Without configurations
+     * the default table is played.
+     */
+    public static void main(String[] args)
+    {
+        System.setProperty("java.awt.headless", "true");
+        List<String> numbers = new ArrayList<>();
+        Map<String, StrategyTable> tables = new LinkedHashMap<>();
+        for (String arg : args)
+        {
+            int separator = arg.indexOf(CONFIG_SEPARATOR);
+            if (separator < 0)
+            {
+                numbers.add(arg);
+            }
+            else
+            {
+                tables.put(arg.substring(0, separator),
+                        StrategyTable.parse(arg.substring(separator + 1)));
+            }
+        }
+        if (tables.isEmpty())
+        {
+            tables.put("default", StrategyTable.defaultTable());
+        }
+        int games = numbers.size() > 0 ? Integer.parseInt(numbers.get(0)) :
+                DEFAULT_GAMES;
+        int maxFrames = numbers.size() > 1 ?
+                Integer.parseInt(numbers.get(1)) : DEFAULT_MAX_FRAMES;
+        long seed = numbers.size() > 2 ? Long.parseLong(numbers.get(2)) : 0;
+        int threads = numbers.size() > 3 ? Integer.parseInt(numbers.get(3)) :
+                Runtime.getRuntime().availableProcessors();
+
+        BalanceRunner runner = new BalanceRunner(games, maxFrames, seed,
+                BrickerGameManager.BRICK_ROWS, BrickerGameManager.BRICK_COLS,
+                new ForkJoinPool(threads));
+        System.out.printf("%d games per configuration, up to %d frames, " +
+                "seed %d, %d threads%n", games, maxFrames, seed, threads);
+        System.out.println(BalanceReport.HEADER);
+        for (Map.Entry<String, StrategyTable> table : tables.entrySet())
+        {
+            long start = System.nanoTime();
+            BalanceReport report = runner.run(table.getValue());
+            double seconds = (System.nanoTime() - start) / NANOS_IN_SECOND;
+            System.out.printf("%s   %.0f games/s%n",
+                    report.format(table.getKey()), games / seconds);
+        }
+    }
+
+    /**
+     * Constructs a balance runner.
+     *
+     * @param games     The number of games per configuration.
+     * @param maxFrames The number of frames after which a game is stopped.
+     * @param seed      The seed the game seeds are derived from.
+     * @param brickRows Number of brick rows in each game.
+     * @param brickCols Number of brick columns in each game.
+     * @param pool      The pool the games are played on.
+     */
+    public BalanceRunner(int games, int maxFrames, long seed, int brickRows,
+                         int brickCols, ForkJoinPool pool)
+    {
+        this.games = games;
+        this.maxFrames = maxFrames;
+        this.seed = seed;
+        this.brickRows = brickRows;
+        this.brickCols = brickCols;
+        this.pool = pool;
+    }
+
+    /**
+     * Plays every game with one strategy table.
+     *
+     * @param strategyTable The weights the bricks' strategies are drawn with.
+     * @return The aggregated results.
+     */
+    public BalanceReport run(StrategyTable strategyTable)
+    {
+        return this.pool.invoke(new GameBatch(strategyTable, 0, this.games));
+    }
+
+    /**
+     * Plays one game to its end or to the frame limit.
+     *
+     * @param gameIndex     The index of the game, which picks its seed.
+     * @param strategyTable The weights the bricks' strategies are drawn with.
+     * @return The statistics of the game.
+     */
+    public GameStats playGame(int gameIndex, StrategyTable strategyTable)
+    {
+        HeadlessGameRunner runner = new HeadlessGameRunner(this.brickRows,
+                this.brickCols, DELTA_TIME, this.seed + gameIndex * SEED_STRIDE);
+        runner.setPlayAgain(false);
+        runner.setGameConfigurator(game ->
+        {
+            game.setStrategyTable(strategyTable);
+            // The process's profiler is not safe to share between workers
+            game.setFrameProfiler(new FrameProfiler());
+        });
+        BrickerGameManager game = runner.startGame();
+        do
+        {
+            runner.followBall();
+        }
+        while (game.getStats().getFrames() < this.maxFrames && runner.step());
+        return game.getStats();
+    }
+
+    /**
+     * Plays a range of games, splitting it between workers.
+     */
+    private class GameBatch extends RecursiveTask<BalanceReport>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final StrategyTable strategyTable;
+        private final int from;
+        private final int to;
+
+        /**
+         * @param strategyTable The weights the games are played with.
+         * @param from          The first game index.
+         * @param to            The index after the last game.
+         */
+        GameBatch(StrategyTable strategyTable, int from, int to)
+        {
+            this.strategyTable = strategyTable;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected BalanceReport compute()
+        {
+            if (this.to - this.from <= GAMES_PER_TASK)
+            {
+                BalanceReport report = new BalanceReport();
+                for (int i = this.from; i < this.to; i++)
+                {
+                    report.add(playGame(i, this.strategyTable));
+                }
+                return report;
+            }
+            int middle = (this.from + this.to) >>> 1;
+            GameBatch left = new GameBatch(this.strategyTable, this.from,
+                    middle);
+            left.fork();
+            BalanceReport report = new GameBatch(this.strategyTable, middle,
+                    this.to).compute();
+            report.merge(left.join());
+            return report;
+        }
+    }
+
+    /**
+     * The aggregated results of many games.
+     */
+    public static class BalanceReport
+    {
+        static final String HEADER = String.format(
+                "%-12s %7s %7s %7s %7s %9s %9s %9s %8s %8s", "config",
+                "games", "win%", "lost%", "cut%", "mean s", "mean pk",
+                "max pk", "turbo%", "hearts");
+
+        private int games;
+        private int wins;
+        private int losses;
+        private long frames;
+        private long turboFrames;
+        private long peakPuckSum;
+        private int maxPeakPucks;
+        private long heartsCollected;
+
+        /**
+         * Adds the results of one game.
+         *
+         * @param stats The statistics of the game.
+         */
+        public void add(GameStats stats)
+        {
+            this.games++;
+            if (stats.getOutcome() == GameStats.Outcome.WON)
+            {
+                this.wins++;
+            }
+            else if (stats.getOutcome() == GameStats.Outcome.LOST)
+            {
+                this.losses++;
+            }
+            this.frames += stats.getFrames();
+            this.turboFrames += stats.getTurboFrames();
+            this.peakPuckSum += stats.getPeakPucks();
+            this.maxPeakPucks = Math.max(this.maxPeakPucks,
+                    stats.getPeakPucks());
+            this.heartsCollected += stats.getHeartsCollected();
+        }
+
+        /**
+         * Adds the results of other games.
+         *
+         * @param other The report of the other games.
+         */
+        public void merge(BalanceReport other)
+        {
+            this.games += other.games;
+            this.wins += other.wins;
+            this.losses += other.losses;
+            this.frames += other.frames;
+            this.turboFrames += other.turboFrames;
+            this.peakPuckSum += other.peakPuckSum;
+            this.maxPeakPucks = Math.max(this.maxPeakPucks,
+                    other.maxPeakPucks);
+            this.heartsCollected += other.heartsCollected;
+        }
+
+        /**
+         * @return The number of games played.
+         */
+        public int getGames()
+        {
+            return this.games;
+        }
+
+        /**
+         * @return The share of games won, in [0, 1].
+         */
+        public double getWinRate()
+        {
+            return this.games == 0 ? 0 : this.wins / (double) this.games;
+        }
+
+        /**
+         * Formats the report as one line under {@link #HEADER}.
+         *
+         * @param name The name of the configuration.
+         * @return The line.
+         */
+        public String format(String name)
+        {
+            double perGame = Math.max(1, this.games);
+            int cut = this.games - this.wins - this.losses;
+            return String.format(
+                    "%-12s %7d %7.1f %7.1f %7.1f %9.1f %9.1f %9d %8.1f %8.2f",
+                    name, this.games, 100 * this.wins / perGame,
+                    100 * this.losses / perGame, 100 * cut / perGame,
+                    this.frames * DELTA_TIME / perGame,
+                    this.peakPuckSum / perGame, this.maxPeakPucks,
+                    100 * this.turboFrames / (double) Math.max(1, this.frames),
+                    this.heartsCollected / perGame);
+        }
+    }
+}
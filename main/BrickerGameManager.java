@@ -2,8 +2,19 @@ package bricker.main;
 
 import bricker.brick_strategies.CollisionStrategy;
 import bricker.brick_strategies.CollsionStrategyFactory;
+import bricker.brick_strategies.LazyCollisionStrategy;
+import bricker.brick_strategies.StrategyTable;
+import bricker.brick_strategies.StrategyType;
 import bricker.brick_strategies.TemporaryPaddleCollisionStrategy;
 import bricker.gameobjects.*;
+import bricker.utils.AssetCache;
+import bricker.utils.FrameProfiler;
+import bricker.utils.GameRandom;
+import bricker.utils.LiveObjectRegistry;
+import bricker.utils.ObjectPool;
+import bricker.utils.Recyclable;
+import bricker.utils.SoundMixer;
+import bricker.utils.VectorMath;
 import danogl.GameManager;
 import danogl.GameObject;
 import danogl.collisions.Layer;
@@ -13,10 +24,11 @@ import danogl.gui.rendering.TextRenderable;
 import danogl.util.Counter;
 import danogl.util.Vector2;
 import java.awt.*;
-import java.util.ArrayList;
-import java.util.Random;
-import java.util.List;
 import java.awt.event.KeyEvent;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
 
 /**
  * BrickerGameManager is the main class responsible for managing the Bricker game.
@@ -34,16 +46,16 @@ public class BrickerGameManager extends GameManager
     // Final definition
     private static final int BORDER_WIDTH = 5;
     private static final int BORDER_OUTSIDE_FRAME = 200;
-    private static final int WINDOW_WIDTH = 1000;
-    private static final int WINDOW_HEIGHT = 700;
+    static final int WINDOW_WIDTH = 1000;
+    static final int WINDOW_HEIGHT = 700;
     private static final int PADDLE_HEIGHT = 20;
     private static final int PADDLE_WIDTH = 100;
     private static final int BRICK_HEIGHT = 15;
     private static final int PADDLE_GAP_FROM_BOTTOM = 30;
     private static final int GAP_BET_BRICKS = 2;
     private static final int GAP_BET_LIFE = 5;
-    private static final int BRICK_COLS = 8;
-    private static final int BRICK_ROWS = 7;
+    static final int BRICK_COLS = 8;
+    static final int BRICK_ROWS = 7;
     private static final int LIFE_GAP_FROM_BRODER = 40;
     private static final int LIFE = 5;
     private static final int MAX_LIFE = 5;
@@ -55,6 +67,20 @@ public class BrickerGameManager extends GameManager
     private static final float BALL_SPEED = 200;
     private static final float PUKE_RADIUS_RATIO = 0.75F;
     private static final float MULT_SPEED = 1.4f;
+    private static final int MAX_SWEEP_ITERATIONS = 4;
+    private static final float CONTACT_SKIN = 0.01f;
+    private static final int PUCK_POOL_CAPACITY = 64;
+    private static final int HEART_POOL_CAPACITY = 16;
+    private static final int SOUND_VOICES = 4;
+    private static final long SOUND_WINDOW_MILLIS = 40;
+    private static final long SOUND_VOICE_MILLIS = 120;
+    private static final int PROFILE_SNAPSHOT_KEY = KeyEvent.VK_F9;
+    private static final Vector2[] BALL_VELOCITIES =
+            VectorMath.diagonals(BALL_SPEED);
+    private static final Vector2[] TURBO_BALL_VELOCITIES =
+            VectorMath.diagonals(BALL_SPEED * MULT_SPEED);
+    private static final Vector2 HEART_VELOCITY =
+            new Vector2(0, SPEED_OF_HEART);
 
     // Final String definition
     private static final String BALL_IMAGE_PATH = "assets/ball.png";
@@ -65,22 +91,71 @@ public class BrickerGameManager extends GameManager
     private static final String PADDLE_IMAGE_PATH = "assets/paddle.png";
     private static final String BACKROUND_IMAGE_PATH = "assets/DARK_BG2_small.jpeg";
     private static final String HEART_IMAGE_PATH = "assets/heart.png";
-    private static final String GAME_TITLE = "brick";
+    static final String GAME_TITLE = "brick";
+    private static final String LAZY_STRATEGIES_ARG = "lazy";
+    private static final String ENDLESS_ARG = "endless";
+    private static final String AUTOPILOT_ARG = "autopilot";
+    private static final int FIRST_OPTION_ARG = 3;
+    private static final String RECORD_PROPERTY = "bricker.record";
+    private static final String REPLAY_PROPERTY = "bricker.replay";
+    private static final String AUTOSAVE_PROPERTY = "bricker.autosave";
+    private static final String LOAD_PROPERTY = "bricker.load";
+    static final String LEVEL_PROPERTY = "bricker.level";
+    private static final int AUTOSAVE_FRAMES = 300;
+
+    // Shared by every game and reset in the process
+    private static final AssetCache ASSET_CACHE = new AssetCache();
+    private static final FrameProfiler DEFAULT_PROFILER =
+            FrameProfiler.fromSystemProperty();
+    private static final SoundMixer SOUND_MIXER = new SoundMixer(SOUND_VOICES,
+            SOUND_WINDOW_MILLIS, SOUND_VOICE_MILLIS);
 
 
     // Variable definition
     private int heartCounter = LIFE;
     private int brickRows;
     private int brickCols;
-    private int brickCounter;
 
     // Object definition
+    private final GameRandom random;
+    private FrameProfiler profiler = DEFAULT_PROFILER;
     private Ball ball;
+    private boolean warmReset = true;
+    private int warmResetCounter;
+    private BrickField brickField;
+    private StaticLayer staticLayer;
+    private Paddle userPaddle;
+    private Paddle temporaryPaddle;
+    private final SweptCollision sweptCollision = new SweptCollision();
     private NumericLifeCounter numericLifeCounter;
     private GameObject[] hearts;
-    private List<GameObject> pukes = new ArrayList<>();
-    private List<GameObject> fallenHeart = new ArrayList<>();
+    private LiveObjectRegistry<Ball> pukes;
+    private LiveObjectRegistry<Heart> fallenHeart;
+    private final CommandBuffer commands = new CommandBuffer();
+    private int coalescedHeart = -1;
+    private boolean applyingHits;
+    private int puckPoolCapacity = PUCK_POOL_CAPACITY;
+    private int heartPoolCapacity = HEART_POOL_CAPACITY;
+    private PuckEngine puckEngine;
+    private boolean puckEngineEnabled = false;
+    private StrategyTable strategyTable = StrategyTable.defaultTable();
+    private boolean lazyStrategies = false;
+    private boolean endless = false;
+    private boolean autopilot = false;
+    private Supplier<CollisionStrategy> rowStrategies;
+    private long rowsStreamed;
+    private Level level;
+    private long assetLoadNanos;
+    private boolean profileKeyDown;
+    private FrameInput frameInput;
+    private Autosaver autosaver;
+    private int autosaveFrames;
+    private int framesSinceAutosave;
+    private GameSnapshot startSnapshot;
+    private CollsionStrategyFactory collsionStrategyFactory;
+    private CollisionStrategy lazyStrategy;
     private Vector2 windowDimensions;
+    private Vector2 windowCenter;
     private WindowController windowController;
     private TextRenderable textRenderable;
     private UserInputListener userInputListener;
@@ -93,20 +168,58 @@ public class BrickerGameManager extends GameManager
     private Renderable backgroundRender;
     private Sound ballSound;
     private Boolean turboState = false;
+    private final GameStats stats = new GameStats();
     public Counter temporaryPaddleCounter = new Counter(0);
-    public Counter doubleStrategrCounter = new Counter(0);
 
     /**
      * Main method to initialize and run the Bricker game.
      * Creates a BrickerGameManager instance with a title and window dimensions,
      * then starts the game.
+     * Arguments (all optional): brick rows, brick columns, random seed, and
+     * "lazy" to draw the brick strategies on first hit, "endless" for endless
+     * mode and "autopilot" for a paddle that plays by itself.
+     * With -Dbricker.record=file the input is recorded to the file; with
+     * -Dbricker.replay=file a recorded game is replayed instead, and the
+     * arguments are ignored. With -Dbricker.autosave=file the game is saved
+     * to the file every few seconds; with -Dbricker.load=file a saved game
+     * is loaded, and the brick rows and columns are taken from it. With
+     * -Dbricker.level=file the bricks are laid out from a level file (see
+     * {@link Level}), which also sets the brick rows and columns.
      */
-    public static void main(String[] args)
+    public static void main(String[] args) throws IOException
     {
+        String levelPath = System.getProperty(LEVEL_PROPERTY);
+        Level level = levelPath == null ? null : Level.open(Path.of(levelPath));
+        String replayPath = System.getProperty(REPLAY_PROPERTY);
+        if (replayPath != null)
+        {
+            InputReplay replay = new InputReplay(Path.of(replayPath));
+            BrickerGameManager replayed = new BrickerGameManager(GAME_TITLE,
+                    new Vector2(WINDOW_WIDTH, WINDOW_HEIGHT),
+                    replay.getBrickRows(), replay.getBrickCols(),
+                    replay.getSeed());
+            replayed.setLazyStrategies(replay.isLazyStrategies());
+            replayed.setEndless(replay.isEndless());
+            replayed.setAutopilot(replay.isAutopilot());
+            replayed.setPuckEngineEnabled(replay.isPuckEngine());
+            replayed.setLevel(level);
+            replayed.setInputReplay(replay);
+            replayed.run();
+            return;
+        }
 
         int brickRows;
         int brickCols;
-        if (args.length == 2)
+        long seed = GameRandom.parseSeed(args.length >= 3 ? args[2] : null);
+        String loadPath = System.getProperty(LOAD_PROPERTY);
+        GameSnapshot snapshot = loadPath == null ? null :
+                GameSnapshot.read(Path.of(loadPath));
+        if (snapshot != null)
+        {
+            brickRows = snapshot.getBrickRows();
+            brickCols = snapshot.getBrickCols();
+        }
+        else if (args.length >= 2)
         {
             brickRows = Integer.parseInt(args[0]);
             brickCols = Integer.parseInt(args[1]);
@@ -118,10 +231,43 @@ public class BrickerGameManager extends GameManager
         }
         BrickerGameManager brickerGameManager= new
                 BrickerGameManager(GAME_TITLE,new Vector2(WINDOW_WIDTH,WINDOW_HEIGHT)
-                                                          ,brickRows,brickCols);
+                                                          ,brickRows,brickCols,seed);
+        brickerGameManager.setLazyStrategies(hasOption(args,
+                LAZY_STRATEGIES_ARG));
+        brickerGameManager.setEndless(hasOption(args, ENDLESS_ARG));
+        brickerGameManager.setAutopilot(hasOption(args, AUTOPILOT_ARG));
+        brickerGameManager.setLevel(level);
+        brickerGameManager.startSnapshot = snapshot;
+        String autosavePath = System.getProperty(AUTOSAVE_PROPERTY);
+        if (autosavePath != null)
+        {
+            brickerGameManager.setAutosave(Path.of(autosavePath),
+                    AUTOSAVE_FRAMES);
+        }
+        String recordPath = System.getProperty(RECORD_PROPERTY);
+        if (recordPath != null)
+        {
+            brickerGameManager.startRecording(Path.of(recordPath));
+        }
         brickerGameManager.run();
     }
 
+    /**
+     * Tells whether one of the option arguments, after the rows, columns and
+     * seed, is the given option.
+     */
+    private static boolean hasOption(String[] args, String option)
+    {
+        for (int i = FIRST_OPTION_ARG; i < args.length; i++)
+        {
+            if (option.equals(args[i]))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Initializes a new BrickerGameManager instance with the specified window
      * title and dimensions.
@@ -131,11 +277,27 @@ public class BrickerGameManager extends GameManager
      */
     BrickerGameManager(String windowTitle,Vector2 windowDimensions,int brickRows,
                                                                    int brickCols)
+    {
+        this(windowTitle, windowDimensions, brickRows, brickCols,
+                GameRandom.randomSeed());
+    }
+
+    /**
+     * Initializes a new BrickerGameManager instance whose randomness is all
+     * derived from the given seed, so the same seed and the same inputs play
+     * the same game.
+     *
+     * @param windowTitle the title of the game window.
+     * @param windowDimensions the dimensions of the game window as a Vector2.
+     * @param seed the seed of the game's random streams.
+     */
+    BrickerGameManager(String windowTitle,Vector2 windowDimensions,int brickRows,
+                       int brickCols, long seed)
     {
         super(windowTitle,windowDimensions);
+        this.random = new GameRandom(seed);
         this.brickRows = brickRows;
         this.brickCols = brickCols;
-        this.brickCounter = this.brickCols*this.brickRows;
     }
 
     /**
@@ -156,15 +318,12 @@ public class BrickerGameManager extends GameManager
                 windowController);
         this.windowController = windowController;
         this.windowDimensions = windowController.getWindowDimensions();
-        this.userInputListener = inputListener;
-        this.heartRender = imageReader.readImage(HEART_IMAGE_PATH,true);
-        this.ballRender = imageReader.readImage(BALL_IMAGE_PATH,true);
-        this.pukeBallRender = imageReader.readImage(PUKE_IMAGE_PATH,true);
-        this.paddleRender = imageReader.readImage(PADDLE_IMAGE_PATH,false);
-        this.backgroundRender = imageReader.readImage(BACKROUND_IMAGE_PATH,false);
-        this.ballSound = soundReader.readSound(BALL_SOUND_PATH);
-        this.brickRender = imageReader.readImage(BRICK_IMAGE_PATH,false);
-        this.redBallRender = imageReader.readImage(TURBO_BALL_IMAGE_PATH,true);
+        this.windowCenter = this.windowDimensions.mult(0.5f);
+        this.userInputListener = this.frameInput == null ? inputListener :
+                this.frameInput.wrap(inputListener);
+        loadAssets(imageReader, soundReader);
+        this.stats.reset();
+        createPools();
 
         // Creat the beginning of the game
         createBall();
@@ -172,21 +331,13 @@ public class BrickerGameManager extends GameManager
         createHearts();
         createNumeric();
         createPaddle();
+        createPuckEngine();
         createBorders();
         createBackroud();
-    }
-
-    /**
-     * Removes a brick from the game world and decreases the brick counter.
-     *
-     * @param brick The Brick object to be removed from the game.
-     *              Must be part of the game objects collection.
-     */
-    public void removeBrick(Brick brick)
-    {
-        if (gameObjects().removeGameObject(brick))
+        if (this.startSnapshot != null)
         {
-            this.brickCounter--;
+            restoreSnapshot(this.startSnapshot);
+            this.startSnapshot = null;
         }
     }
 
@@ -217,6 +368,14 @@ public class BrickerGameManager extends GameManager
     {
         gameObjects().removeGameObject(temporaryPaddle);
         this.temporaryPaddleCounter.reset();
+        if (this.temporaryPaddle == temporaryPaddle)
+        {
+            this.temporaryPaddle = null;
+            if (this.puckEngine != null)
+            {
+                this.puckEngine.setTemporaryPaddle(null);
+            }
+        }
 
     }
 
@@ -226,7 +385,7 @@ public class BrickerGameManager extends GameManager
      */
     public void setBallToOriginal()
     {
-        this.ball.setVelocity(new Vector2(BALL_SPEED, BALL_SPEED));
+        this.ball.setVelocity(BALL_VELOCITIES[0]);
         this.ball.renderer().setRenderable(this.ballRender);
         this.turboState = false;
     }
@@ -237,47 +396,154 @@ public class BrickerGameManager extends GameManager
      */
     public void setTurboBall(float multSpeed)
     {
-        this.ball.setVelocity(new Vector2(this.ball.getVelocity().x() *
-                multSpeed,this.ball.getVelocity().y() * multSpeed));
+        Vector2 velocity = this.ball.getVelocity();
+        this.ball.setVelocity(new Vector2(velocity.x() * multSpeed,
+                velocity.y() * multSpeed));
 
         this.ball.renderer().setRenderable(this.redBallRender);
         this.turboState = true;
     }
 
     /**
-     * Creates a falling heart at the specified position with a downward velocity.
+     * Requests a falling heart at the specified position with a downward
+     * velocity. The heart joins the game when the frame's commands are
+     * applied (see {@link #applyCommands()}). While brick hits are applied,
+     * hearts requested at the spot of the last heart of the frame are merged
+     * into it, which then gives one more life.
      *
      * @param position Starting position of the heart. Must not be null.
      */
     public void createFallenHeart(Vector2 position)
     {
-        GameObject fallenheart = new Heart(position,new
-                Vector2(HEART_WIDTH, HEART_HEIGHT),heartRender,this);
-        gameObjects().addGameObject(fallenheart);
-        fallenheart.setVelocity(new Vector2(0, SPEED_OF_HEART));
+        if (this.coalescedHeart >= 0 && this.commands.isHeartAt(
+                this.coalescedHeart, position.x(), position.y()))
+        {
+            this.commands.addHeartLife(this.coalescedHeart);
+            return;
+        }
+        int command = this.commands.spawnHeart(position.x(), position.y(), 1);
+        if (this.applyingHits)
+        {
+            this.coalescedHeart = command;
+        }
     }
 
     /**
-     * Creates a new puck ball at the center of the screen, assigns a random
-     * velocity,  and adds it to the game objects.
+     * Requests a new puck ball at the given position with a random velocity.
      */
     public void createPuck(Vector2 position)
     {
-        // Create a new puck ball with specified dimensions, image, and sound.
-        GameObject puckBall = new Ball(
-                position, new Vector2(BALL_RADIUS * PUKE_RADIUS_RATIO,
-                BALL_RADIUS * PUKE_RADIUS_RATIO)  , this.pukeBallRender,
-                this.ballSound,this);
+        createPucks(position, 1);
+    }
+
+    /**
+     * Requests several puck balls at the given position, each with its own
+     * random velocity. The pucks join the game together when the frame's
+     * commands are applied (see {@link #applyCommands()}). In endless mode
+     * the pucks beyond the puck pool capacity are not created.
+     *
+     * @param position The top-left corner of the new pucks.
+     * @param count    The number of pucks.
+     */
+    public void createPucks(Vector2 position, int count)
+    {
+        if (this.endless)
+        {
+            count = Math.min(count, this.puckPoolCapacity - getPuckCount() -
+                    this.commands.getPuckSpawns());
+        }
+        SplittableRandom rand = this.random.spawns();
+        for (int i = 0; i < count; i++)
+        {
+            double angle = rand.nextDouble() * Math.PI;
+            float ballVelX = (float)Math.cos(angle) *  BALL_SPEED;
+            float ballVelY = (float)Math.sin(angle) *  BALL_SPEED;
+            if(rand.nextBoolean())
+                ballVelX *= -1;
+            if(rand.nextBoolean())
+                ballVelY *= -1;
+            this.commands.spawnPuck(position.x(), position.y(), ballVelX,
+                    ballVelY);
+        }
+    }
+
+    /**
+     * Applies the spawn and despawn requests made since the last call, in
+     * order, as one batch: the room for the new pucks is made once, and the
+     * game object collection is only changed here. The game calls it at the
+     * start of a frame and after its effects and clean-up; code that spawns
+     * between frames can call it to see the objects at once.
+     */
+    public void applyCommands()
+    {
+        int commandCounter = this.commands.size();
+        if (commandCounter == 0)
+        {
+            return;
+        }
+        int puckSpawns = this.commands.getPuckSpawns();
+        if (puckSpawns > 0)
+        {
+            if (this.puckEngine != null)
+            {
+                this.puckEngine.ensureCapacity(puckSpawns);
+            }
+            else
+            {
+                this.pukes.ensureCapacity(puckSpawns);
+            }
+        }
+        for (int i = 0; i < commandCounter; i++)
+        {
+            switch (this.commands.getKind(i))
+            {
+                case CommandBuffer.SPAWN_PUCK:
+                    spawnPuck(this.commands.getX(i), this.commands.getY(i),
+                            this.commands.getVelocityX(i),
+                            this.commands.getVelocityY(i));
+                    break;
+                case CommandBuffer.SPAWN_HEART:
+                    spawnFallenHeart(this.commands.getX(i),
+                            this.commands.getY(i), this.commands.getLives(i));
+                    break;
+                default:
+                    gameObjects().removeGameObject(
+                            this.commands.getTarget(i));
+                    break;
+            }
+        }
+        this.commands.clear();
+        this.coalescedHeart = -1;
+    }
+
+    /**
+     * Takes a falling heart from the pool, re-arms it and adds it to the game.
+     */
+    private void spawnFallenHeart(float x, float y, int lives)
+    {
+        Heart fallenheart = this.fallenHeart.acquire();
+        fallenheart.rearm(new Vector2(x, y), HEART_VELOCITY, this.heartRender);
+        fallenheart.setLives(lives);
+        gameObjects().addGameObject(fallenheart);
+        this.fallenHeart.add(fallenheart);
+    }
+
+    /**
+     * Adds a puck to the puck engine, or takes a puck ball from the pool,
+     * re-arms it and adds it to the game.
+     */
+    private void spawnPuck(float x, float y, float velocityX, float velocityY)
+    {
+        if (this.puckEngine != null)
+        {
+            this.puckEngine.spawn(x, y, velocityX, velocityY);
+            return;
+        }
+        // Take a puck ball from the pool and re-arm it.
+        Ball puckBall = this.pukes.acquire();
+        puckBall.rearm(new Vector2(x, y), new Vector2(velocityX, velocityY),
+                this.pukeBallRender);
         gameObjects().addGameObject(puckBall);
-        Random rand = new Random();
-        double angle = rand.nextDouble() * Math.PI;
-        float ballVelX = (float)Math.cos(angle) *  BALL_SPEED;
-        float ballVelY = (float)Math.sin(angle) *  BALL_SPEED;
-        if(rand.nextBoolean())
-            ballVelX *= -1;
-        if(rand.nextBoolean())
-            ballVelY *= -1;
-        puckBall.setVelocity(new Vector2(ballVelX, ballVelY));
         this.pukes.add(puckBall);
     }
 
@@ -287,7 +553,7 @@ public class BrickerGameManager extends GameManager
      */
     public void createTemporaryPaddle()
     {
-        GameObject tempPaddle = new TemporaryPaddle(Vector2.ZERO,
+        Paddle tempPaddle = new TemporaryPaddle(Vector2.ZERO,
                 new Vector2(PADDLE_WIDTH, PADDLE_HEIGHT),
                 this.paddleRender,this.userInputListener,
                 this.windowDimensions,this);
@@ -297,15 +563,567 @@ public class BrickerGameManager extends GameManager
         this.temporaryPaddleCounter.increaseBy(1);
         gameObjects().addGameObject(tempPaddle);
         this.temporaryPaddleCounter.increment();
+        this.temporaryPaddle = tempPaddle;
+        if (this.puckEngine != null)
+        {
+            this.puckEngine.setTemporaryPaddle(tempPaddle);
+        }
     }
 
     /**
-     * Removes the specified heart object from the game.
+     * Removes the specified heart object from the game. The heart goes back to
+     * the heart pool at the start of the next frame.
      * @param heart The heart GameObject to be removed.
      */
-    public void removeFallenHeart(GameObject heart)
+    public void removeFallenHeart(Heart heart)
+    {
+        removeLiveObject(this.fallenHeart, heart);
+    }
+
+    /**
+     * Sets the capacity of the puck and falling heart pools. Takes effect
+     * when the game is (re)initialized.
+     *
+     * @param puckCapacity  Maximal number of free pucks kept for reuse.
+     * @param heartCapacity Maximal number of free falling hearts kept for reuse.
+     */
+    public void setPoolCapacity(int puckCapacity, int heartCapacity)
+    {
+        this.puckPoolCapacity = puckCapacity;
+        this.heartPoolCapacity = heartCapacity;
+    }
+
+    /**
+     * Chooses whether pucks are simulated by the structure-of-arrays
+     * {@link PuckEngine} instead of one {@link Ball} game object per puck.
+     * Takes effect when the game is (re)initialized.
+     *
+     * @param enabled True to use the puck engine.
+     */
+    public void setPuckEngineEnabled(boolean enabled)
+    {
+        this.puckEngineEnabled = enabled;
+    }
+
+    /**
+     * @return The pucks simulated as game objects, not by the puck engine.
+     * For reading only; pucks are added and removed through the game.
+     */
+    public LiveObjectRegistry<Ball> getPucks()
+    {
+        return this.pukes;
+    }
+
+    /**
+     * @return The number of pucks currently in the game.
+     */
+    public int getPuckCount()
+    {
+        return this.puckEngine != null ? this.puckEngine.size() :
+                this.pukes.size();
+    }
+
+    /**
+     * Sets the weights the brick strategies are drawn with. Takes effect the
+     * next time the bricks are laid out.
+     *
+     * @param strategyWeights the weight of each {@link StrategyType}, indexed
+     *                        by ordinal.
+     */
+    public void setStrategyWeights(double[] strategyWeights)
+    {
+        setStrategyTable(new StrategyTable(strategyWeights));
+    }
+
+    /**
+     * Sets the table the brick strategies are drawn with. Tables are
+     * immutable, so one table can be shared by many games. Takes effect the
+     * next time the bricks are laid out.
+     *
+     * @param strategyTable the weights of the strategy kinds.
+     */
+    public void setStrategyTable(StrategyTable strategyTable)
+    {
+        this.strategyTable = strategyTable;
+    }
+
+    /**
+     * Sets whether each brick's strategy is drawn when the bricks are laid
+     * out, or only on the brick's first hit. Takes effect the next time the
+     * bricks are laid out.
+     *
+     * @param lazyStrategies true to draw the strategies on first hit.
+     */
+    public void setLazyStrategies(boolean lazyStrategies)
+    {
+        this.lazyStrategies = lazyStrategies;
+    }
+
+    /**
+     * Sets whether the game is endless: a cleared brick row goes back to the
+     * top with new strategies, full or as the level laid it out, the rows
+     * above it moving down, so the field never runs out. Since the field
+     * never runs out of puck bricks either, the live pucks are capped at the
+     * puck pool capacity. Takes effect the next time the bricks are laid
+     * out.
+     *
+     * @param endless true for endless mode.
+     */
+    public void setEndless(boolean endless)
+    {
+        this.endless = endless;
+    }
+
+    /**
+     * Sets whether the main paddle plays by itself (see
+     * {@link AutopilotPaddle}) instead of following the arrow keys. Takes
+     * effect the next time the game is initialized.
+     *
+     * @param autopilot true for a paddle that plays by itself.
+     */
+    public void setAutopilot(boolean autopilot)
+    {
+        this.autopilot = autopilot;
+    }
+
+    /**
+     * Lays the bricks out from a level instead of filling every cell, and
+     * takes the brick rows and columns from it. The level's bricks are read
+     * from its mapped file each time they are laid out, so one level can be
+     * shared by many games. A recording does not store the level; replay it
+     * with the same level set. Takes effect the next time the bricks are laid
+     * out.
+     *
+     * @param level the level, or null to fill every cell.
+     */
+    public void setLevel(Level level)
+    {
+        this.level = level;
+        if (level != null)
+        {
+            this.brickRows = level.getRows();
+            this.brickCols = level.getCols();
+        }
+    }
+
+    /**
+     * @return The number of brick rows streamed in endless mode since the
+     * game was created, over every session.
+     */
+    public long getRowsStreamed()
+    {
+        return this.rowsStreamed;
+    }
+
+    /**
+     * Chooses how "Play again" starts the next game: by resetting the live
+     * objects in place (the default, see {@link #warmReset()}), or through
+     * the window's reset, which rebuilds every object.
+     *
+     * @param warmReset true to reset in place.
+     */
+    public void setWarmReset(boolean warmReset)
+    {
+        this.warmReset = warmReset;
+    }
+
+    /**
+     * Starts a new game in place, keeping every object: every brick (or the
+     * level's bricks) comes back with a new strategy, the lives, ball,
+     * paddle and counters are reset, and the pucks and falling hearts go
+     * back to their pools. The brick field is reset a word or a byte at a
+     * time, except for drawing eager strategies.
+     */
+    public void warmReset()
+    {
+        this.brickField.reviveAll();
+        layOutBricks();
+        // One repaint of the window, however many bricks came back
+        this.staticLayer.invalidateAll();
+
+        despawnAllMovingObjects();
+        if (this.temporaryPaddle != null)
+        {
+            removeTemporaryPaddle((TemporaryPaddle) this.temporaryPaddle);
+        }
+        this.temporaryPaddleCounter.reset();
+
+        setHeartCounter(LIFE);
+        this.turboState = false;
+        this.ball.setCenter(this.windowCenter);
+        this.ball.restoreCounters(0, 0);
+        this.ball.renderer().setRenderable(this.ballRender);
+        SplittableRandom rand = this.random.spawns();
+        this.ball.setVelocity(BALL_VELOCITIES[VectorMath.diagonalIndex(
+                rand.nextBoolean(), rand.nextBoolean())]);
+        this.userPaddle.setCenter(new Vector2(this.windowCenter.x(),
+                this.userPaddle.getCenter().y()));
+        this.stats.reset();
+        this.warmResetCounter++;
+    }
+
+    /**
+     * Sends every puck and falling heart back to its pool, with the
+     * requests pending from the frame, and clears the puck engine.
+     */
+    private void despawnAllMovingObjects()
+    {
+        applyCommands();
+        for (int i = this.pukes.size() - 1; i >= 0; i--)
+        {
+            removeLiveObject(this.pukes, this.pukes.get(i));
+        }
+        for (int i = this.fallenHeart.size() - 1; i >= 0; i--)
+        {
+            removeLiveObject(this.fallenHeart, this.fallenHeart.get(i));
+        }
+        applyCommands();
+        this.pukes.recycleRemoved();
+        this.fallenHeart.recycleRemoved();
+        if (this.puckEngine != null)
+        {
+            this.puckEngine.clear();
+        }
+    }
+
+    /**
+     * @return The number of games started by {@link #warmReset()}.
+     */
+    public int getWarmResetCounter()
+    {
+        return this.warmResetCounter;
+    }
+
+    /**
+     * Saves the game every given number of frames. The state is copied on
+     * the game thread, then encoded and written to the file on a background
+     * thread.
+     *
+     * @param path           The file of the saved game, replaced by each save.
+     * @param intervalFrames The number of frames between two saves.
+     */
+    public void setAutosave(Path path, int intervalFrames)
+    {
+        this.autosaver = new Autosaver(path);
+        this.autosaveFrames = intervalFrames;
+        this.framesSinceAutosave = 0;
+    }
+
+    /**
+     * Copies the live state of the game. Only copies fields and arrays, so
+     * it is cheap enough to call between two frames.
+     *
+     * @return The snapshot, no longer tied to the game.
+     */
+    public GameSnapshot captureSnapshot()
+    {
+        int pucks = getPuckCount();
+        GameSnapshot snapshot = new GameSnapshot(this.brickRows,
+                this.brickCols, this.brickField.getBrickCounter(), pucks,
+                this.fallenHeart.size());
+        long[] aliveBricks = this.brickField.getAliveBricks();
+        System.arraycopy(aliveBricks, 0, snapshot.aliveBricks, 0,
+                aliveBricks.length);
+        System.arraycopy(this.brickField.getRowSlots(), 0, snapshot.rowSlots,
+                0, this.brickRows);
+        int alive = 0;
+        for (int cell = this.brickField.nextAlive(0); cell >= 0;
+             cell = this.brickField.nextAlive(cell + 1))
+        {
+            CollisionStrategy strategy = this.brickField.getStrategy(cell);
+            snapshot.strategyIds[alive++] = strategy == this.lazyStrategy ?
+                    GameSnapshot.LAZY_STRATEGY_ID : (short)
+                    this.collsionStrategyFactory.getStrategyId(strategy);
+        }
+        snapshot.heartCounter = this.heartCounter;
+        snapshot.turboState = this.turboState;
+        snapshot.temporaryPaddleCounter = this.temporaryPaddleCounter.value();
+        snapshot.userPaddleX = this.userPaddle.getTopLeftCorner().x();
+        Vector2 ballPosition = this.ball.getTopLeftCorner();
+        Vector2 ballVelocity = this.ball.getVelocity();
+        snapshot.ballX = ballPosition.x();
+        snapshot.ballY = ballPosition.y();
+        snapshot.ballVelocityX = ballVelocity.x();
+        snapshot.ballVelocityY = ballVelocity.y();
+        snapshot.ballCollisionCounter = this.ball.getCollisionCounter();
+        snapshot.ballTurboCounter = this.ball.getTurboCounter();
+        if (this.temporaryPaddle instanceof TemporaryPaddle)
+        {
+            Vector2 paddlePosition = this.temporaryPaddle.getTopLeftCorner();
+            snapshot.hasTemporaryPaddle = true;
+            snapshot.temporaryPaddleX = paddlePosition.x();
+            snapshot.temporaryPaddleY = paddlePosition.y();
+            snapshot.temporaryPaddleHitsLeft =
+                    ((TemporaryPaddle) this.temporaryPaddle).getHitsLeft();
+        }
+        if (this.puckEngine != null)
+        {
+            this.puckEngine.copyTo(snapshot.puckX, snapshot.puckY,
+                    snapshot.puckVelocityX, snapshot.puckVelocityY);
+        }
+        else
+        {
+            for (int i = 0; i < pucks; i++)
+            {
+                Ball puck = this.pukes.get(i);
+                snapshot.puckX[i] = puck.getTopLeftCorner().x();
+                snapshot.puckY[i] = puck.getTopLeftCorner().y();
+                snapshot.puckVelocityX[i] = puck.getVelocity().x();
+                snapshot.puckVelocityY[i] = puck.getVelocity().y();
+            }
+        }
+        for (int i = 0; i < snapshot.heartFallCounter; i++)
+        {
+            Vector2 heartPosition = this.fallenHeart.get(i).getTopLeftCorner();
+            snapshot.fallingHeartX[i] = heartPosition.x();
+            snapshot.fallingHeartY[i] = heartPosition.y();
+            snapshot.fallingHeartLives[i] = this.fallenHeart.get(i).getLives();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Puts an initialized game in the state of a snapshot, in place: bricks
+     * are removed, rebuilt or given their saved strategy, and the moving
+     * objects are moved, respawned or removed. The game's random streams
+     * are not part of the snapshot and go on from where they are.
+     *
+     * @param snapshot A snapshot of a game with the same brick rows and
+     *                 columns.
+     * @throws IllegalArgumentException if the brick field does not match.
+     */
+    public void restoreSnapshot(GameSnapshot snapshot)
+    {
+        if (snapshot.brickRows != this.brickRows ||
+                snapshot.brickCols != this.brickCols)
+        {
+            throw new IllegalArgumentException("snapshot of a " +
+                    snapshot.brickRows + "x" + snapshot.brickCols +
+                    " brick field");
+        }
+        restoreBricks(snapshot);
+
+        setHeartCounter(snapshot.heartCounter);
+        this.turboState = snapshot.turboState;
+        Vector2 paddlePosition = this.userPaddle.getTopLeftCorner();
+        this.userPaddle.setTopLeftCorner(new Vector2(snapshot.userPaddleX,
+                paddlePosition.y()));
+        this.ball.setTopLeftCorner(new Vector2(snapshot.ballX,
+                snapshot.ballY));
+        this.ball.setVelocity(new Vector2(snapshot.ballVelocityX,
+                snapshot.ballVelocityY));
+        this.ball.restoreCounters(snapshot.ballCollisionCounter,
+                snapshot.ballTurboCounter);
+        this.ball.renderer().setRenderable(this.turboState ?
+                this.redBallRender : this.ballRender);
+
+        if (this.temporaryPaddle != null)
+        {
+            removeTemporaryPaddle((TemporaryPaddle) this.temporaryPaddle);
+        }
+        if (snapshot.hasTemporaryPaddle)
+        {
+            createTemporaryPaddle();
+            this.temporaryPaddle.setTopLeftCorner(new Vector2(
+                    snapshot.temporaryPaddleX, snapshot.temporaryPaddleY));
+            ((TemporaryPaddle) this.temporaryPaddle).setHitsLeft(
+                    snapshot.temporaryPaddleHitsLeft);
+        }
+        this.temporaryPaddleCounter.reset();
+        this.temporaryPaddleCounter.increaseBy(snapshot.temporaryPaddleCounter);
+
+        despawnAllMovingObjects();
+        for (int i = 0; i < snapshot.puckCounter; i++)
+        {
+            spawnPuck(snapshot.puckX[i], snapshot.puckY[i],
+                    snapshot.puckVelocityX[i], snapshot.puckVelocityY[i]);
+        }
+        for (int i = 0; i < snapshot.heartFallCounter; i++)
+        {
+            spawnFallenHeart(snapshot.fallingHeartX[i],
+                    snapshot.fallingHeartY[i], snapshot.fallingHeartLives[i]);
+        }
+    }
+
+    /**
+     * Writes the current state of the game to a file, on the calling thread.
+     *
+     * @param path The file of the saved game.
+     * @throws IOException If the file cannot be written.
+     */
+    public void saveSnapshot(Path path) throws IOException
+    {
+        captureSnapshot().write(path);
+    }
+
+    /**
+     * Loads a saved game into this initialized game, see
+     * {@link #restoreSnapshot(GameSnapshot)}.
+     *
+     * @param path The file of the saved game.
+     * @throws IOException If the file cannot be read or is not a snapshot.
+     */
+    public void loadSnapshot(Path path) throws IOException
+    {
+        restoreSnapshot(GameSnapshot.read(path));
+    }
+
+    /**
+     * Records the input of every frame from now on, together with the seed,
+     * the brick layout and the lazy strategies, endless, autopilot and puck
+     * engine settings, so the game can be replayed exactly. The level, the
+     * strategy table and the pool capacities are not recorded; replay with
+     * the same ones set. Must be called before the game is initialized.
+     *
+     * @param path The file of the recording, replaced if it exists.
+     * @throws IOException if the file cannot be created.
+     */
+    public void startRecording(Path path) throws IOException
+    {
+        this.frameInput = new FrameInput(new InputRecorder(path,
+                this.random.getSeed(), this.brickRows, this.brickCols,
+                this.lazyStrategies, this.endless, this.autopilot,
+                this.puckEngineEnabled));
+    }
+
+    /**
+     * Plays the recorded input instead of the user's, frame by frame with
+     * the recorded delta times. The game must have been created with the
+     * recording's seed and brick layout. Must be called before the game is
+     * initialized.
+     *
+     * @param replay The recording to play.
+     */
+    public void setInputReplay(InputReplay replay)
+    {
+        this.frameInput = new FrameInput(replay);
+    }
+
+    /**
+     * @return True once a replayed game played all its recorded frames.
+     */
+    public boolean isReplayFinished()
+    {
+        return this.frameInput != null && this.frameInput.isReplayFinished();
+    }
+
+    /**
+     * Closes the recording or the replay of the game, if any.
+     */
+    public void closeInputLog()
     {
-        gameObjects().removeGameObject(heart);
+        if (this.frameInput != null)
+        {
+            this.frameInput.close();
+        }
+    }
+
+    /**
+     * Asks the shared sound mixer to play a sound. Never blocks: identical
+     * sounds requested close together are played once, on the mixer's
+     * thread.
+     *
+     * @param sound the sound to play. Ignored if null.
+     */
+    public void playSound(Sound sound)
+    {
+        SOUND_MIXER.play(sound);
+    }
+
+    /**
+     * @return the frame profiler of the game. F9 writes a snapshot while it
+     * is enabled.
+     */
+    public FrameProfiler getFrameProfiler()
+    {
+        return this.profiler;
+    }
+
+    /**
+     * Sets the profiler the game's frames are timed with. By default every
+     * game shares the process's profiler, which the
+     * {@value FrameProfiler#OUTPUT_PROPERTY} system property enables; games
+     * played at the same time need profilers of their own. Takes effect the
+     * next time the game is initialized.
+     *
+     * @param profiler the frame profiler.
+     */
+    public void setFrameProfiler(FrameProfiler profiler)
+    {
+        this.profiler = profiler;
+    }
+
+    /**
+     * @return the sound mixer shared by every game in the process.
+     */
+    public static SoundMixer getSoundMixer()
+    {
+        return SOUND_MIXER;
+    }
+
+    /**
+     * @return the asset cache shared by every game in the process.
+     */
+    public static AssetCache getAssetCache()
+    {
+        return ASSET_CACHE;
+    }
+
+    /**
+     * @return the time, in nanoseconds, the last initialization spent loading
+     * assets.
+     */
+    public long getAssetLoadNanos()
+    {
+        return this.assetLoadNanos;
+    }
+
+    /**
+     * @return the statistics of the current session.
+     */
+    public GameStats getStats()
+    {
+        return this.stats;
+    }
+
+    /**
+     * @return the main ball.
+     */
+    public Ball getBall()
+    {
+        return this.ball;
+    }
+
+    /**
+     * @return the user's paddle.
+     */
+    public Paddle getUserPaddle()
+    {
+        return this.userPaddle;
+    }
+
+    /**
+     * @return the random streams of this game.
+     */
+    public GameRandom getRandom()
+    {
+        return this.random;
+    }
+
+    /**
+     * @return The pool of puck balls.
+     */
+    public ObjectPool<Ball> getPuckPool()
+    {
+        return this.pukes.getPool();
+    }
+
+    /**
+     * @return The pool of falling hearts.
+     */
+    public ObjectPool<Heart> getHeartPool()
+    {
+        return this.fallenHeart.getPool();
     }
 
     /**
@@ -314,18 +1132,74 @@ public class BrickerGameManager extends GameManager
      */
     public void addHeart()
     {
+        this.stats.recordHeartCollected();
         if (heartCounter < MAX_LIFE)
         {
-            float y = this.windowDimensions.y() - HEART_HEIGHT;
-            float x =  (this.heartCounter*(HEART_WIDTH + GAP_BET_LIFE) +
-                    LIFE_GAP_FROM_BRODER);
-            GameObject heart = new Heart(new Vector2(x,y),new
-                    Vector2(HEART_WIDTH, HEART_HEIGHT),this.heartRender,this);
-            gameObjects().addGameObject(heart,Layer.UI);
-            this.hearts[this.heartCounter] = heart;
+            addLifeHeart();
+        }
+    }
+
+    /**
+     * Adds the heart of one more life at the end of the lives row, reusing
+     * the heart that was shown in that slot before, if any.
+     */
+    private void addLifeHeart()
+    {
+        GameObject heart = this.hearts[this.heartCounter];
+        if (heart != null)
+        {
+            gameObjects().addGameObject(heart, Layer.UI);
             this.heartCounter++;
-            this.fallenHeart.add(heart);
+            return;
         }
+        float y = this.windowDimensions.y() - HEART_HEIGHT;
+        float x =  (this.heartCounter*(HEART_WIDTH + GAP_BET_LIFE) +
+                LIFE_GAP_FROM_BRODER);
+        heart = new Heart(new Vector2(x,y),new
+                Vector2(HEART_WIDTH, HEART_HEIGHT),this.heartRender,this);
+        gameObjects().addGameObject(heart,Layer.UI);
+        this.hearts[this.heartCounter] = heart;
+        this.heartCounter++;
+    }
+
+    /**
+     * Adds or removes life hearts until the given number of lives is shown.
+     */
+    private void setHeartCounter(int heartCounter)
+    {
+        while (this.heartCounter > heartCounter)
+        {
+            this.heartCounter--;
+            this.gameObjects().removeGameObject(this.hearts[this.heartCounter],
+                    UI_LAYER);
+        }
+        while (this.heartCounter < heartCounter)
+        {
+            addLifeHeart();
+        }
+        incText();
+    }
+
+    /**
+     * Brings the brick field to the state of a snapshot and repaints the
+     * whole static layer.
+     */
+    private void restoreBricks(GameSnapshot snapshot)
+    {
+        this.brickField.setRowSlots(snapshot.rowSlots);
+        this.brickField.setAliveBricks(snapshot.aliveBricks);
+        int alive = 0;
+        for (int cell = this.brickField.nextAlive(0); cell >= 0;
+             cell = this.brickField.nextAlive(cell + 1))
+        {
+            short strategyId = snapshot.strategyIds[alive++];
+            this.brickField.setStrategy(cell,
+                    strategyId != GameSnapshot.LAZY_STRATEGY_ID ?
+                    this.collsionStrategyFactory.getStrategy(strategyId) :
+                    this.lazyStrategy != null ? this.lazyStrategy :
+                    this.collsionStrategyFactory.buildCollisionStrategy());
+        }
+        this.staticLayer.invalidateAll();
     }
 
     /**
@@ -344,31 +1218,99 @@ public class BrickerGameManager extends GameManager
 
 
     /**
-     * Creates a grid of bricks, positions them on the screen
+     * Creates the brick field and lays the bricks out, from the level if
+     * there is one. Bricks are not game objects: ball-brick collisions go
+     * through the brick field, and the bricks are drawn by the static layer
+     * (see {@link #createBackroud()}).
      */
     private void createBricks()
 
     {
         int brickWidth = ((int)this.windowDimensions.x() -
                 (GAP_BET_BRICKS* brickCols)- 1 - (2*BORDER_WIDTH))/brickCols ;
-        CollsionStrategyFactory collsionStrategyFactory = new
-                CollsionStrategyFactory(this);
-        for (int i = 0; i < brickRows; i++)
+        Vector2 brickSize = this.level != null &&
+                this.level.getBrickSize() != null ?
+                this.level.getBrickSize() : new Vector2(brickWidth,
+                BRICK_HEIGHT);
+        this.brickField = new BrickField(brickRows, brickCols, new Vector2(
+                GAP_BET_BRICKS + BORDER_WIDTH, GAP_BET_BRICKS + BORDER_WIDTH),
+                brickSize, GAP_BET_BRICKS);
+        // Lazy strategies are drawn in hit order, during play
+        this.collsionStrategyFactory = new
+                CollsionStrategyFactory(this, this.lazyStrategies ?
+                this.random.strategies() : this.random.layout(),
+                this.strategyTable);
+        this.lazyStrategy = null;
+        if (this.lazyStrategies)
+        {
+            LazyCollisionStrategy lazyStrategy = new LazyCollisionStrategy(
+                    this.collsionStrategyFactory);
+            this.lazyStrategy = lazyStrategy;
+            this.rowStrategies = () -> lazyStrategy;
+        }
+        else
         {
-            for(int j = 0; j < brickCols; j++)
+            this.rowStrategies =
+                    this.collsionStrategyFactory::buildCollisionStrategy;
+        }
+        this.brickField.setRemovalListener(cell ->
+                this.staticLayer.invalidate(cell));
+        this.brickField.setRowStreaming(this.endless);
+        this.brickField.setProfiler(this.profiler);
+        this.brickField.setRowListener(row ->
+                this.staticLayer.invalidateRows(0, row));
+        layOutBricks();
+    }
+
+    /**
+     * Gives the bricks of a full brick field their strategies or, with a
+     * level, replaces them by the level's bricks, straight from its mapped
+     * file. Bricks whose strategy is not fixed get one from rowStrategies.
+     */
+    private void layOutBricks()
+    {
+        if (this.level == null)
+        {
+            if (this.lazyStrategies)
             {
-                float x = j * (brickWidth + GAP_BET_BRICKS ) + GAP_BET_BRICKS +
-                        BORDER_WIDTH ;
-                float y = i * (BRICK_HEIGHT + GAP_BET_BRICKS) + GAP_BET_BRICKS +
-                        BORDER_WIDTH ;
-
-              CollisionStrategy randStrategy = collsionStrategyFactory.buildCollisionStrategy();
-              this.doubleStrategrCounter.reset();
-                GameObject brick = new Brick( new Vector2(x, y), new
-                        Vector2(brickWidth, BRICK_HEIGHT),this.brickRender,
-                        this.gameObjects(),this,randStrategy);
-                gameObjects().addGameObject(brick);
+                this.brickField.fill(this.lazyStrategy);
             }
+            else
+            {
+                this.brickField.fill(this.rowStrategies);
+            }
+            return;
+        }
+        short[] strategyIds = this.level.getStrategyIds();
+        CollisionStrategy[] strategies =
+                new CollisionStrategy[strategyIds.length];
+        for (int i = 0; i < strategyIds.length; i++)
+        {
+            strategies[i] = strategyIds[i] == Level.RANDOM_STRATEGY_ID ?
+                    null : this.collsionStrategyFactory.getStrategy(
+                    strategyIds[i]);
+        }
+        this.brickField.layOut(this.level.getAliveBricks(),
+                this.level.getStrategyIndexes(), strategies,
+                this.rowStrategies);
+    }
+
+    /**
+     * Creates the puck engine, if enabled, above the default layer where it
+     * stays out of the engine's collision pass.
+     */
+    private void createPuckEngine()
+    {
+        this.puckEngine = null;
+        if (this.puckEngineEnabled)
+        {
+            this.puckEngine = new PuckEngine(this.windowDimensions,
+                    new Vector2(BALL_RADIUS * PUKE_RADIUS_RATIO,
+                            BALL_RADIUS * PUKE_RADIUS_RATIO),
+                    this.pukeBallRender, this.ballSound, SOUND_MIXER,
+                    this.brickField,
+                    this.userPaddle);
+            gameObjects().addGameObject(this.puckEngine, Layer.FOREGROUND);
         }
     }
 
@@ -378,16 +1320,18 @@ public class BrickerGameManager extends GameManager
     private void createPaddle()
 
     {
-        GameObject userPaddle = new Paddle(
+        this.userPaddle = this.autopilot ? new AutopilotPaddle(Vector2.ZERO,
+                new Vector2(PADDLE_WIDTH, PADDLE_HEIGHT), this.paddleRender,
+                this.windowDimensions, this) : new Paddle(
                 Vector2.ZERO,
                 new Vector2(PADDLE_WIDTH, PADDLE_HEIGHT),
                 this.paddleRender,
                 this.userInputListener,this.windowDimensions);
-        userPaddle.setCenter(
+        this.userPaddle.setCenter(
                 new Vector2(this.windowDimensions.x()/2,
                         (int)this.windowDimensions.y()-PADDLE_GAP_FROM_BOTTOM));
-        gameObjects().addGameObject(userPaddle);
-        userPaddle.setTag("main paddle");
+        gameObjects().addGameObject(this.userPaddle);
+        this.userPaddle.setTag("main paddle");
     }
 
     /**
@@ -398,17 +1342,218 @@ public class BrickerGameManager extends GameManager
      */
     public void update(float deltaTime)
     {
+        long frameStart = this.profiler.start();
+        if (this.frameInput != null)
+        {
+            deltaTime = this.frameInput.beginFrame(deltaTime);
+        }
+        // Objects removed last frame can now be reused
+        this.pukes.recycleRemoved();
+        this.fallenHeart.recycleRemoved();
+        // Spawns requested between frames
+        applyCommands();
+
+        long phaseStart = this.profiler.start();
         super.update(deltaTime);
+        this.profiler.record(FrameProfiler.Phase.PHYSICS, phaseStart);
+
+        // Apply the strategies of the bricks hit during the physics pass
+        phaseStart = this.profiler.start();
+        applyBrickHits();
+        if (this.endless)
+        {
+            this.rowsStreamed += this.brickField.streamClearedRows(
+                    this.rowStrategies);
+        }
+        this.profiler.record(FrameProfiler.Phase.EFFECTS, phaseStart);
 
         // Delete off-screen pukes and fallen hearts
+        phaseStart = this.profiler.start();
         cleanUpFallenObjects(pukes);
         cleanUpFallenObjects(fallenHeart);
+        applyCommands();
+        this.profiler.record(FrameProfiler.Phase.CLEAN_UP, phaseStart);
 
         // Handle the case where the ball falls below the window
+        phaseStart = this.profiler.start();
         handleBallFall();
+        this.profiler.record(FrameProfiler.Phase.BALL_FALL, phaseStart);
+        phaseStart = this.profiler.start();
         checkForGameEnd();
+        this.profiler.record(FrameProfiler.Phase.GAME_END, phaseStart);
+        this.stats.recordFrame(this.turboState, getPuckCount());
+        if (this.autosaver != null &&
+                ++this.framesSinceAutosave >= this.autosaveFrames)
+        {
+            this.framesSinceAutosave = 0;
+            this.autosaver.save(captureSnapshot());
+        }
+        this.profiler.record(FrameProfiler.Phase.FRAME, frameStart);
+
+        if (this.profiler.isEnabled())
+        {
+            handleProfileKey();
+        }
+    }
+
+    /**
+     * Applies the strategies of the bricks hit since the last call, in the
+     * order of the hits, merging the falling hearts they spawn at one spot.
+     * Turbo and the temporary paddle are only triggered once, since their
+     * strategies check whether they are already on.
+     */
+    private void applyBrickHits()
+    {
+        this.applyingHits = true;
+        this.brickField.applyHits();
+        this.applyingHits = false;
+        this.coalescedHeart = -1;
+    }
+
+    /**
+     * Writes a profile snapshot when the profile key goes down.
+     */
+    private void handleProfileKey()
+    {
+        boolean pressed = this.userInputListener.isKeyPressed(
+                PROFILE_SNAPSHOT_KEY);
+        if (pressed && !this.profileKeyDown)
+        {
+            try
+            {
+                this.profiler.writeSnapshot();
+            }
+            catch (IOException exception)
+            {
+                System.err.println("Could not write the frame profile: " +
+                        exception.getMessage());
+            }
+        }
+        this.profileKeyDown = pressed;
+    }
+
+
+    /**
+     * Resolves the collisions of a ball that moved from the given top-left
+     * corner to its current one. The move is swept against the bricks (through
+     * the brick field) and the paddles, so a fast ball cannot tunnel through
+     * them. On a hit the ball is placed at the contact point, bounces, and
+     * continues the rest of its move; bricks it ends up overlapping are then
+     * hit as well.
+     *
+     * @param ball The ball that moved.
+     * @param from The ball's top-left corner before the move.
+     */
+    public void sweepBall(Ball ball, Vector2 from)
+    {
+        float fromX = from.x();
+        float fromY = from.y();
+        float width = ball.getDimensions().x();
+        float height = ball.getDimensions().y();
+        for (int i = 0; i < MAX_SWEEP_ITERATIONS; i++)
+        {
+            Vector2 to = ball.getTopLeftCorner();
+            float dx = to.x() - fromX;
+            float dy = to.y() - fromY;
+            this.sweptCollision.reset();
+            int cell = this.brickField.sweep(fromX, fromY, width, height,
+                    dx, dy, this.sweptCollision);
+            Paddle paddle = null;
+            if (sweepPaddle(this.userPaddle, fromX, fromY, width, height, dx,
+                    dy))
+            {
+                paddle = this.userPaddle;
+            }
+            if (sweepPaddle(this.temporaryPaddle, fromX, fromY, width, height,
+                    dx, dy))
+            {
+                paddle = this.temporaryPaddle;
+            }
+            if (!this.sweptCollision.hasHit())
+            {
+                break;
+            }
+
+            // Move to the contact point and reflect the rest of the move
+            float time = this.sweptCollision.getTime();
+            Vector2 normal = this.sweptCollision.getNormal();
+            fromX += dx * time + normal.x() * CONTACT_SKIN;
+            fromY += dy * time + normal.y() * CONTACT_SKIN;
+            float restX = dx * (1 - time);
+            float restY = dy * (1 - time);
+            if (normal.x() != 0)
+            {
+                restX = -restX;
+            }
+            else
+            {
+                restY = -restY;
+            }
+            ball.setTopLeftCorner(new Vector2(fromX + restX, fromY + restY));
+            Vector2 velocity = ball.getVelocity();
+            if (velocity.x() * normal.x() + velocity.y() * normal.y() < 0)
+            {
+                ball.bounce(normal);
+            }
+            if (paddle != null)
+            {
+                paddle.onBallHit(ball);
+            }
+            else
+            {
+                this.brickField.hit(cell, ball);
+            }
+        }
+        this.brickField.collide(ball);
     }
 
+    /**
+     * Sweeps a ball's move against a paddle, if the paddle is in the game.
+     *
+     * @return True if the paddle is the earliest hit so far.
+     */
+    private boolean sweepPaddle(Paddle paddle, float fromX, float fromY,
+                                float width, float height, float dx, float dy)
+    {
+        if (paddle == null)
+        {
+            return false;
+        }
+        Vector2 topLeft = paddle.getTopLeftCorner();
+        Vector2 dimensions = paddle.getDimensions();
+        return this.sweptCollision.sweep(fromX, fromY, width, height, dx, dy,
+                topLeft.x(), topLeft.y(), topLeft.x() + dimensions.x(),
+                topLeft.y() + dimensions.y());
+    }
+
+    /**
+     * Takes the game's images and sound from the shared asset cache. Every
+     * asset is requested before any is collected, so on the first load they
+     * are all decoded concurrently; later games and resets only hit the cache.
+     */
+    private void loadAssets(ImageReader imageReader, SoundReader soundReader)
+    {
+        long start = System.nanoTime();
+        ASSET_CACHE.requestImage(imageReader, HEART_IMAGE_PATH, true);
+        ASSET_CACHE.requestImage(imageReader, BALL_IMAGE_PATH, true);
+        ASSET_CACHE.requestImage(imageReader, PUKE_IMAGE_PATH, true);
+        ASSET_CACHE.requestImage(imageReader, PADDLE_IMAGE_PATH, false);
+        ASSET_CACHE.requestImage(imageReader, BACKROUND_IMAGE_PATH, false);
+        ASSET_CACHE.requestImage(imageReader, BRICK_IMAGE_PATH, false);
+        ASSET_CACHE.requestImage(imageReader, TURBO_BALL_IMAGE_PATH, true);
+        ASSET_CACHE.requestSound(soundReader, BALL_SOUND_PATH);
+
+        this.heartRender = ASSET_CACHE.getImage(HEART_IMAGE_PATH, true);
+        this.ballRender = ASSET_CACHE.getImage(BALL_IMAGE_PATH, true);
+        this.pukeBallRender = ASSET_CACHE.getImage(PUKE_IMAGE_PATH, true);
+        this.paddleRender = ASSET_CACHE.getImage(PADDLE_IMAGE_PATH, false);
+        this.backgroundRender = ASSET_CACHE.getImage(BACKROUND_IMAGE_PATH,
+                false);
+        this.brickRender = ASSET_CACHE.getImage(BRICK_IMAGE_PATH, false);
+        this.redBallRender = ASSET_CACHE.getImage(TURBO_BALL_IMAGE_PATH, true);
+        this.ballSound = ASSET_CACHE.getSound(BALL_SOUND_PATH);
+        this.assetLoadNanos = System.nanoTime() - start;
+    }
 
     /**
      * Creates a ball, sets its position and velocity, and adds it to the game.
@@ -418,17 +1563,11 @@ public class BrickerGameManager extends GameManager
         this.ball = new Ball(
                 Vector2.ZERO, new Vector2(BALL_RADIUS, BALL_RADIUS),
                 this.ballRender, this.ballSound,this);
-        Vector2 windowDimensions = windowController.getWindowDimensions();
-        ball.setCenter(windowDimensions.mult(0.5f));
+        ball.setCenter(this.windowCenter);
         gameObjects().addGameObject(ball);
-        float ballVelX = BALL_SPEED;
-        float ballVelY = BALL_SPEED;
-        Random rand = new Random();
-        if(rand.nextBoolean())
-            ballVelX *= -1;
-        if(rand.nextBoolean())
-            ballVelY *= -1;
-        ball.setVelocity(new Vector2(ballVelX, ballVelY));
+        SplittableRandom rand = this.random.spawns();
+        ball.setVelocity(BALL_VELOCITIES[VectorMath.diagonalIndex(
+                rand.nextBoolean(), rand.nextBoolean())]);
     }
 
 
@@ -462,13 +1601,14 @@ public class BrickerGameManager extends GameManager
 
     /**
      * Creates a background covering the entire game window and adds it to the game.
+     * The background is composited with the brick field into one static layer.
      *
      */
     private void createBackroud()
     {
-        GameObject backRound = new GameObject(Vector2.ZERO,this.windowDimensions,
-                this.backgroundRender);
-        gameObjects().addGameObject(backRound, Layer.BACKGROUND);
+        this.staticLayer = new StaticLayer(this.windowDimensions,
+                this.backgroundRender, this.brickRender, this.brickField);
+        gameObjects().addGameObject(this.staticLayer, Layer.BACKGROUND);
     }
 
     /**
@@ -515,54 +1655,94 @@ public class BrickerGameManager extends GameManager
 
 
     /**
-     * Cleans up objects that have fallen outside the window.
-     * @param objects List of game objects to check for being out of bounds.
+     * Cleans up objects that have fallen outside the window. Only live objects
+     * are visited, so the cost does not grow over a session.
+     * @param objects Registry of game objects to check for being out of bounds.
      */
-    private void cleanUpFallenObjects(List<GameObject> objects)
+    private <T extends GameObject & Recyclable> void cleanUpFallenObjects(
+            LiveObjectRegistry<T> objects)
     {
-        for (GameObject gameObject : objects)
+        // Backwards, since removal swaps the last object into the freed slot
+        for (int i = objects.size() - 1; i >= 0; i--)
         {
-            if (gameObject.getCenter().y() > windowDimensions.y())
+            T gameObject = objects.get(i);
+            if (VectorMath.centerY(gameObject) > windowDimensions.y())
             {
-                this.gameObjects().removeGameObject(gameObject);
+                removeLiveObject(objects, gameObject);
             }
         }
     }
 
+    /**
+     * The single removal path of pucks and falling hearts: takes the object
+     * out of its registry, which recycles it into its pool at the start of the
+     * next frame, and requests its removal from the game.
+     * @param objects The registry tracking the object.
+     * @param gameObject The object to remove.
+     */
+    private <T extends GameObject & Recyclable> void removeLiveObject(
+            LiveObjectRegistry<T> objects, T gameObject)
+    {
+        if (objects.remove(gameObject))
+        {
+            this.commands.despawn(gameObject);
+        }
+    }
+
+    /**
+     * Creates the puck and falling heart registries and pools and fills the
+     * pools up front. On a reset, objects still tracked from the previous
+     * game are recycled, and the pools are only rebuilt if their capacity
+     * changed.
+     */
+    private void createPools()
+    {
+        Vector2 puckSize = new Vector2(BALL_RADIUS * PUKE_RADIUS_RATIO,
+                BALL_RADIUS * PUKE_RADIUS_RATIO);
+        Vector2 heartSize = new Vector2(HEART_WIDTH, HEART_HEIGHT);
+        if (this.pukes == null ||
+                getPuckPool().getCapacity() != this.puckPoolCapacity)
+        {
+            this.pukes = new LiveObjectRegistry<>(new ObjectPool<>(
+                    this.puckPoolCapacity, () -> new Ball(Vector2.ZERO,
+                    puckSize, this.pukeBallRender, this.ballSound, this)));
+        }
+        if (this.fallenHeart == null ||
+                getHeartPool().getCapacity() != this.heartPoolCapacity)
+        {
+            this.fallenHeart = new LiveObjectRegistry<>(new ObjectPool<>(
+                    this.heartPoolCapacity, () -> new Heart(Vector2.ZERO,
+                    heartSize, this.heartRender, this)));
+        }
+        // Requests of the previous game are void in the new window
+        this.commands.clear();
+        this.coalescedHeart = -1;
+        this.pukes.recycleAll();
+        this.fallenHeart.recycleAll();
+        getPuckPool().prewarm(this.puckPoolCapacity);
+        getHeartPool().prewarm(this.heartPoolCapacity);
+    }
+
     /**
      * Handles the situation when the ball falls below the window.
      * Reduces the life count and updates the UI accordingly.
      */
     private void handleBallFall()
     {
-        if (this.ball.getCenter().y() > windowDimensions.y())
+        if (VectorMath.centerY(this.ball) > windowDimensions.y())
         {
             this.heartCounter--;
             this.gameObjects().removeGameObject(this.hearts[heartCounter], UI_LAYER);
             this.numericLifeCounter.updateColor(heartCounter);
             this.numericLifeCounter.updateText(heartCounter);
-            ball.setCenter(windowDimensions.mult(0.5f));
-
-            float ballVelX;
-            float ballVelY;
-
-            if (this.turboState)
-            {
-                ballVelX = BALL_SPEED * MULT_SPEED;
-                ballVelY = BALL_SPEED * MULT_SPEED;
-            }
-            else
-            {
-                ballVelX = BALL_SPEED;
-                ballVelY = BALL_SPEED;
-            }
+            ball.setCenter(this.windowCenter);
 
-            Random rand = new Random();
-            if(rand.nextBoolean())
-                ballVelX *= -1;
-            if(rand.nextBoolean())
-                ballVelY *= -1;
-            ball.setVelocity(new Vector2(ballVelX, ballVelY));
+            // Reuse the precomputed velocities instead of allocating
+            Vector2[] velocities = this.turboState ? TURBO_BALL_VELOCITIES :
+                    BALL_VELOCITIES;
+            SplittableRandom rand = this.random.spawns();
+            ball.setVelocity(velocities[VectorMath.diagonalIndex(
+                    rand.nextBoolean(), rand.nextBoolean())]);
             // Update the UI counter
         }
     }
@@ -576,23 +1756,30 @@ public class BrickerGameManager extends GameManager
         if (this.heartCounter == 0)
         {
             prompt = "Game Over!";
+            this.stats.recordEnd(false);
         }
 
-        else if (this.brickCounter == 0 || userInputListener.
+        else if (this.brickField.getBrickCounter() == 0 || userInputListener.
                                                     isKeyPressed(KeyEvent.VK_W))
         {
             prompt = "You win!";
+            this.stats.recordEnd(true);
         }
         if (!prompt.isEmpty()) {
             prompt += " Play again?";
             if (windowController.openYesNoDialog(prompt))
             {
+                if (this.warmReset)
+                {
+                    warmReset();
+                    return;
+                }
                 windowController.resetGame();
                 this.turboState = false;
                 this.heartCounter = LIFE;
-                this.brickCounter = brickCols * brickRows;
                 this.temporaryPaddleCounter.reset();
             } else {
+                closeInputLog();
                 windowController.closeWindow();
             }
         }
@@ -0,0 +1,230 @@
+package bricker.main;
+
+import danogl.GameObject;
+import java.util.Arrays;
+
+/**
+ * The spawn and despawn requests of a frame, kept in order until the game
+ * manager applies them all at once at a safe point of the frame (see
+ * {@link BrickerGameManager#applyCommands()}). A command is a kind and its
+ * arguments, stored in parallel arrays that are allocated once and only grow
+ * if a frame issues more commands than ever before.
+ * @author Elyashiv Eitan
+ */
+class CommandBuffer
+{
+    /**
+     * Adds a puck: position, velocity.
+     */
+    static final byte SPAWN_PUCK = 0;
+    /**
+     * Adds a falling heart: position, lives.
+     */
+    static final byte SPAWN_HEART = 1;
+    /**
+     * Takes a game object out of the game.
+     */
+    static final byte DESPAWN = 2;
+    private static final int INITIAL_CAPACITY = 32;
+
+    private byte[] kinds = new byte[INITIAL_CAPACITY];
+    private float[] x = new float[INITIAL_CAPACITY];
+    private float[] y = new float[INITIAL_CAPACITY];
+    private float[] velocityX = new float[INITIAL_CAPACITY];
+    private float[] velocityY = new float[INITIAL_CAPACITY];
+    private int[] lives = new int[INITIAL_CAPACITY];
+    private GameObject[] targets = new GameObject[INITIAL_CAPACITY];
+    private int size;
+    private int puckSpawns;
+
+    /**
+     * Requests a puck.
+     *
+     * @param topLeftX  horizontal position of the puck's top-left corner.
+     * @param topLeftY  vertical position of the puck's top-left corner.
+     * @param velocityX horizontal velocity of the puck.
+     * @param velocityY vertical velocity of the puck.
+     */
+    void spawnPuck(float topLeftX, float topLeftY, float velocityX,
+                   float velocityY)
+    {
+        int command = add(SPAWN_PUCK);
+        this.x[command] = topLeftX;
+        this.y[command] = topLeftY;
+        this.velocityX[command] = velocityX;
+        this.velocityY[command] = velocityY;
+        this.puckSpawns++;
+    }
+
+    /**
+     * Requests a falling heart.
+     *
+     * @param topLeftX horizontal position of the heart's top-left corner.
+     * @param topLeftY vertical position of the heart's top-left corner.
+     * @param lives    the lives the heart gives when collected.
+     * @return the index of the command.
+     */
+    int spawnHeart(float topLeftX, float topLeftY, int lives)
+    {
+        int command = add(SPAWN_HEART);
+        this.x[command] = topLeftX;
+        this.y[command] = topLeftY;
+        this.lives[command] = lives;
+        return command;
+    }
+
+    /**
+     * Requests that a game object leaves the game.
+     *
+     * @param target the object to remove.
+     */
+    void despawn(GameObject target)
+    {
+        int command = add(DESPAWN);
+        this.targets[command] = target;
+    }
+
+    /**
+     * Tells whether a command spawns a heart at the given spot.
+     *
+     * @param command  the index of a command.
+     * @param topLeftX horizontal position of a heart's top-left corner.
+     * @param topLeftY vertical position of a heart's top-left corner.
+     * @return true if the command is a heart spawn at that spot.
+     */
+    boolean isHeartAt(int command, float topLeftX, float topLeftY)
+    {
+        return command < this.size && this.kinds[command] == SPAWN_HEART &&
+                this.x[command] == topLeftX && this.y[command] == topLeftY;
+    }
+
+    /**
+     * Gives one more life to the heart of a heart spawn command.
+     *
+     * @param command the index of a heart spawn command.
+     */
+    void addHeartLife(int command)
+    {
+        this.lives[command]++;
+    }
+
+    /**
+     * @return the number of commands.
+     */
+    int size()
+    {
+        return this.size;
+    }
+
+    /**
+     * @return the number of puck spawn commands.
+     */
+    int getPuckSpawns()
+    {
+        return this.puckSpawns;
+    }
+
+    /**
+     * @param command the index of a command.
+     * @return the kind of the command.
+     */
+    byte getKind(int command)
+    {
+        return this.kinds[command];
+    }
+
+    /**
+     * @param command the index of a spawn command.
+     * @return the horizontal position of the spawned object.
+     */
+    float getX(int command)
+    {
+        return this.x[command];
+    }
+
+    /**
+     * @param command the index of a spawn command.
+     * @return the vertical position of the spawned object.
+     */
+    float getY(int command)
+    {
+        return this.y[command];
+    }
+
+    /**
+     * @param command the index of a puck spawn command.
+     * @return the horizontal velocity of the puck.
+     */
+    float getVelocityX(int command)
+    {
+        return this.velocityX[command];
+    }
+
+    /**
+     * @param command the index of a puck spawn command.
+     * @return the vertical velocity of the puck.
+     */
+    float getVelocityY(int command)
+    {
+        return this.velocityY[command];
+    }
+
+    /**
+     * @param command the index of a heart spawn command.
+     * @return the lives of the heart.
+     */
+    int getLives(int command)
+    {
+        return this.lives[command];
+    }
+
+    /**
+     * @param command the index of a despawn command.
+     * @return the object to remove.
+     */
+    GameObject getTarget(int command)
+    {
+        return this.targets[command];
+    }
+
+    /**
+     * Removes every command.
+     */
+    void clear()
+    {
+        for (int i = 0; i < this.size; i++)
+        {
+            this.targets[i] = null;
+        }
+        this.size = 0;
+        this.puckSpawns = 0;
+    }
+
+    /**
+     * Appends a command of the given kind, growing the arrays if needed.
+     */
+    private int add(byte kind)
+    {
+        if (this.size == this.kinds.length)
+        {
+            grow();
+        }
+        this.kinds[this.size] = kind;
+        return this.size++;
+    }
+
+    /**
+     * Doubles the capacity.
+     */
+    private void grow()
+    {
+        int capacity = this.kinds.length * 2;
+        this.kinds = Arrays.copyOf(this.kinds, capacity);
+        this.x = Arrays.copyOf(this.x, capacity);
+        this.y = Arrays.copyOf(this.y, capacity);
+        this.velocityX = Arrays.copyOf(this.velocityX, capacity);
+        this.velocityY = Arrays.copyOf(this.velocityY, capacity);
+        this.lives = Arrays.copyOf(this.lives, capacity);
+        this.targets = Arrays.copyOf(this.targets, capacity);
+    }
+}
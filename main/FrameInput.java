@@ -0,0 +1,157 @@
+package bricker.main;
+
+import danogl.gui.UserInputListener;
+import java.awt.event.KeyEvent;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Freezes the keys the game reads (left, right and the win key) at the start
+ * of every frame into a key mask, and answers the game's key queries from it.
+ * The mask comes from the live input and is recorded, or comes from a
+ * recorded log, which replays the session exactly. Once a replay runs out of
+ * frames the live input takes over.
+ * @author Elyashiv Eitan
+ */
+class FrameInput
+{
+    private static final int[] TRACKED_KEYS =
+            {KeyEvent.VK_LEFT, KeyEvent.VK_RIGHT, KeyEvent.VK_W};
+
+    private final InputRecorder recorder;
+    private final InputReplay replay;
+    private UserInputListener liveInput;
+    private int keyMask;
+
+    /**
+     * Creates the input of a recorded game.
+     *
+     * @param recorder Receives the input of every frame.
+     */
+    FrameInput(InputRecorder recorder)
+    {
+        this.recorder = recorder;
+        this.replay = null;
+    }
+
+    /**
+     * Creates the input of a replayed game.
+     *
+     * @param replay The recorded input.
+     */
+    FrameInput(InputReplay replay)
+    {
+        this.recorder = null;
+        this.replay = replay;
+    }
+
+    /**
+     * Wraps the live input of a game: the tracked keys are answered from the
+     * frame's key mask, every other query goes to the live input.
+     *
+     * @param liveInput The input of the window.
+     * @return The input to hand to the game objects.
+     */
+    UserInputListener wrap(UserInputListener liveInput)
+    {
+        this.liveInput = liveInput;
+        Map<String, Function<Object[], Object>> handlers = new HashMap<>();
+        handlers.put("isKeyPressed", args -> isKeyPressed((Integer) args[0]));
+        return InterfaceStubs.wrap(UserInputListener.class, liveInput,
+                handlers);
+    }
+
+    /**
+     * Fixes the key mask of a new frame, recording or replaying it.
+     *
+     * @param deltaTime The delta time of the frame given by the window.
+     * @return The delta time the frame should use: the recorded one in a
+     * replay, the given one otherwise.
+     */
+    float beginFrame(float deltaTime)
+    {
+        if (this.replay != null && this.replay.nextFrame())
+        {
+            this.keyMask = this.replay.getKeyMask();
+            return this.replay.getDeltaTime();
+        }
+        this.keyMask = pollLiveInput();
+        if (this.recorder != null)
+        {
+            try
+            {
+                this.recorder.record(this.keyMask, deltaTime);
+            }
+            catch (IOException exception)
+            {
+                throw new IllegalStateException("Could not record the input",
+                        exception);
+            }
+        }
+        return deltaTime;
+    }
+
+    /**
+     * @return True once a replayed game ran out of recorded frames.
+     */
+    boolean isReplayFinished()
+    {
+        return this.replay != null && this.replay.isFinished();
+    }
+
+    /**
+     * Closes the log.
+     */
+    void close()
+    {
+        try
+        {
+            if (this.recorder != null)
+            {
+                this.recorder.close();
+            }
+            if (this.replay != null)
+            {
+                this.replay.close();
+            }
+        }
+        catch (IOException exception)
+        {
+            System.err.println("Could not close the input log: " +
+                    exception.getMessage());
+        }
+    }
+
+    /**
+     * @return True if the key is held in this frame.
+     */
+    private boolean isKeyPressed(int keyCode)
+    {
+        for (int i = 0; i < TRACKED_KEYS.length; i++)
+        {
+            if (TRACKED_KEYS[i] == keyCode)
+            {
+                return (this.keyMask & (1 << i)) != 0;
+            }
+        }
+        return this.liveInput.isKeyPressed(keyCode);
+    }
+
+    /**
+     * @return The mask of the tracked keys held in the live input.
+     */
+    private int pollLiveInput()
+    {
+        int mask = 0;
+        for (int i = 0; i < TRACKED_KEYS.length; i++)
+        {
+            if (this.liveInput.isKeyPressed(TRACKED_KEYS[i]))
+            {
+                mask |= 1 << i;
+            }
+        }
+        return mask;
+    }
+}
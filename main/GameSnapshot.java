@@ -0,0 +1,347 @@
+package bricker.main;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.BitSet;
+
+/**
+ * A copy of the live state of a game: the bricks left and their strategies,
+ * the main ball, the pucks, the lives, turbo, the falling hearts and the
+ * temporary paddle. A snapshot is taken on the game thread by
+ * {@link BrickerGameManager#captureSnapshot()}, which only copies fields and
+ * arrays, and can be encoded on any thread afterwards.
+ *
+ * The binary format is versioned: a header (magic, version, brick rows and
+ * columns), the alive bricks as a bitmap of longs, one short strategy id per
+ * alive brick (see
+ * {@link bricker.brick_strategies.CollsionStrategyFactory#getStrategyId}),
+ * the slot of each brick row on the screen (see
+ * {@link bricker.gameobjects.BrickField}), and then the moving objects as
+ * plain floats and ints. The randomness of the game is not part of the
+ * snapshot.
+ * @author Elyashiv Eitan
+ */
+public class GameSnapshot
+{
+    /**
+     * The first int of every snapshot.
+     */
+    static final int MAGIC = 0x42524B53;
+    /**
+     * The version of the snapshot format.
+     */
+    static final short VERSION = 1;
+    /**
+     * The strategy id of a brick whose strategy is drawn on first hit.
+     */
+    static final short LAZY_STRATEGY_ID = -1;
+    private static final int HEADER_SIZE = 14;
+    private static final int STATE_SIZE = 50;
+    private static final int PUCK_SIZE = 16;
+    private static final int HEART_SIZE = 12;
+
+    // Variable definition, filled by the game manager
+    final int brickRows;
+    final int brickCols;
+    final long[] aliveBricks;
+    final short[] strategyIds;
+    final int[] rowSlots;
+    int heartCounter;
+    boolean turboState;
+    int temporaryPaddleCounter;
+    float userPaddleX;
+    float ballX;
+    float ballY;
+    float ballVelocityX;
+    float ballVelocityY;
+    int ballCollisionCounter;
+    int ballTurboCounter;
+    boolean hasTemporaryPaddle;
+    float temporaryPaddleX;
+    float temporaryPaddleY;
+    int temporaryPaddleHitsLeft;
+    final int puckCounter;
+    final float[] puckX;
+    final float[] puckY;
+    final float[] puckVelocityX;
+    final float[] puckVelocityY;
+    final int heartFallCounter;
+    final float[] fallingHeartX;
+    final float[] fallingHeartY;
+    final int[] fallingHeartLives;
+
+    /**
+     * Creates an empty snapshot of a brick field.
+     *
+     * @param brickRows   The brick rows of the game.
+     * @param brickCols   The brick columns of the game.
+     * @param aliveBricks The number of bricks left, which is the number of
+     *                    strategy ids.
+     * @param pucks       The number of pucks.
+     * @param hearts      The number of falling hearts.
+     */
+    GameSnapshot(int brickRows, int brickCols, int aliveBricks, int pucks,
+                 int hearts)
+    {
+        this.brickRows = brickRows;
+        this.brickCols = brickCols;
+        this.aliveBricks = new long[(brickRows * brickCols + Long.SIZE - 1) /
+                Long.SIZE];
+        this.strategyIds = new short[aliveBricks];
+        this.rowSlots = new int[brickRows];
+        for (int row = 0; row < brickRows; row++)
+        {
+            this.rowSlots[row] = row;
+        }
+        this.puckCounter = pucks;
+        this.puckX = new float[pucks];
+        this.puckY = new float[pucks];
+        this.puckVelocityX = new float[pucks];
+        this.puckVelocityY = new float[pucks];
+        this.heartFallCounter = hearts;
+        this.fallingHeartX = new float[hearts];
+        this.fallingHeartY = new float[hearts];
+        this.fallingHeartLives = new int[hearts];
+    }
+
+    /**
+     * Reads a snapshot from a file.
+     *
+     * @param path The snapshot file.
+     * @return The snapshot.
+     * @throws IOException If the file cannot be read or is not a snapshot of
+     *                     this version.
+     */
+    public static GameSnapshot read(Path path) throws IOException
+    {
+        return decode(ByteBuffer.wrap(Files.readAllBytes(path)));
+    }
+
+    /**
+     * Decodes a snapshot.
+     *
+     * @param buffer The encoded snapshot, from its position on.
+     * @return The snapshot.
+     * @throws IOException If the buffer does not hold a snapshot of this
+     *                     version.
+     */
+    public static GameSnapshot decode(ByteBuffer buffer) throws IOException
+    {
+        try
+        {
+            if (buffer.getInt() != MAGIC)
+            {
+                throw new IOException("not a game snapshot");
+            }
+            short version = buffer.getShort();
+            if (version != VERSION)
+            {
+                throw new IOException("unsupported snapshot version " +
+                        version);
+            }
+            int brickRows = buffer.getInt();
+            int brickCols = buffer.getInt();
+            long[] aliveBricks = new long[(brickRows * brickCols +
+                    Long.SIZE - 1) / Long.SIZE];
+            int alive = 0;
+            for (int i = 0; i < aliveBricks.length; i++)
+            {
+                aliveBricks[i] = buffer.getLong();
+                alive += Long.bitCount(aliveBricks[i]);
+            }
+            short[] strategyIds = new short[alive];
+            buffer.asShortBuffer().get(strategyIds);
+            buffer.position(buffer.position() + alive * Short.BYTES);
+            int[] rowSlots = new int[brickRows];
+            BitSet seenSlots = new BitSet(brickRows);
+            for (int row = 0; row < brickRows; row++)
+            {
+                rowSlots[row] = buffer.getInt();
+                if (rowSlots[row] < 0 || rowSlots[row] >= brickRows ||
+                        seenSlots.get(rowSlots[row]))
+                {
+                    throw new IOException("corrupt brick row order");
+                }
+                seenSlots.set(rowSlots[row]);
+            }
+
+            int heartCounter = buffer.getInt();
+            boolean turboState = buffer.get() != 0;
+            boolean hasTemporaryPaddle = buffer.get() != 0;
+            int temporaryPaddleCounter = buffer.getInt();
+            float userPaddleX = buffer.getFloat();
+            float ballX = buffer.getFloat();
+            float ballY = buffer.getFloat();
+            float ballVelocityX = buffer.getFloat();
+            float ballVelocityY = buffer.getFloat();
+            int ballCollisionCounter = buffer.getInt();
+            int ballTurboCounter = buffer.getInt();
+            float temporaryPaddleX = buffer.getFloat();
+            float temporaryPaddleY = buffer.getFloat();
+            int temporaryPaddleHitsLeft = buffer.getInt();
+
+            int pucks = buffer.getInt();
+            int hearts = buffer.getInt();
+            GameSnapshot snapshot = new GameSnapshot(brickRows, brickCols,
+                    alive, pucks, hearts);
+            System.arraycopy(aliveBricks, 0, snapshot.aliveBricks, 0,
+                    aliveBricks.length);
+            System.arraycopy(strategyIds, 0, snapshot.strategyIds, 0, alive);
+            System.arraycopy(rowSlots, 0, snapshot.rowSlots, 0, brickRows);
+            snapshot.heartCounter = heartCounter;
+            snapshot.turboState = turboState;
+            snapshot.hasTemporaryPaddle = hasTemporaryPaddle;
+            snapshot.temporaryPaddleCounter = temporaryPaddleCounter;
+            snapshot.userPaddleX = userPaddleX;
+            snapshot.ballX = ballX;
+            snapshot.ballY = ballY;
+            snapshot.ballVelocityX = ballVelocityX;
+            snapshot.ballVelocityY = ballVelocityY;
+            snapshot.ballCollisionCounter = ballCollisionCounter;
+            snapshot.ballTurboCounter = ballTurboCounter;
+            snapshot.temporaryPaddleX = temporaryPaddleX;
+            snapshot.temporaryPaddleY = temporaryPaddleY;
+            snapshot.temporaryPaddleHitsLeft = temporaryPaddleHitsLeft;
+            for (int i = 0; i < pucks; i++)
+            {
+                snapshot.puckX[i] = buffer.getFloat();
+                snapshot.puckY[i] = buffer.getFloat();
+                snapshot.puckVelocityX[i] = buffer.getFloat();
+                snapshot.puckVelocityY[i] = buffer.getFloat();
+            }
+            for (int i = 0; i < hearts; i++)
+            {
+                snapshot.fallingHeartX[i] = buffer.getFloat();
+                snapshot.fallingHeartY[i] = buffer.getFloat();
+                snapshot.fallingHeartLives[i] = buffer.getInt();
+            }
+            return snapshot;
+        }
+        catch (BufferUnderflowException | NegativeArraySizeException
+               exception)
+        {
+            throw new IOException("truncated game snapshot", exception);
+        }
+    }
+
+    /**
+     * Encodes the snapshot in the binary format.
+     *
+     * @return The encoded snapshot.
+     */
+    public byte[] encode()
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE +
+                this.aliveBricks.length * Long.BYTES +
+                this.strategyIds.length * Short.BYTES +
+                this.rowSlots.length * Integer.BYTES + STATE_SIZE +
+                2 * Integer.BYTES + this.puckCounter * PUCK_SIZE +
+                this.heartFallCounter * HEART_SIZE);
+        buffer.putInt(MAGIC);
+        buffer.putShort(VERSION);
+        buffer.putInt(this.brickRows);
+        buffer.putInt(this.brickCols);
+        for (long word : this.aliveBricks)
+        {
+            buffer.putLong(word);
+        }
+        buffer.asShortBuffer().put(this.strategyIds);
+        buffer.position(buffer.position() +
+                this.strategyIds.length * Short.BYTES);
+        for (int slot : this.rowSlots)
+        {
+            buffer.putInt(slot);
+        }
+
+        buffer.putInt(this.heartCounter);
+        buffer.put((byte) (this.turboState ? 1 : 0));
+        buffer.put((byte) (this.hasTemporaryPaddle ? 1 : 0));
+        buffer.putInt(this.temporaryPaddleCounter);
+        buffer.putFloat(this.userPaddleX);
+        buffer.putFloat(this.ballX);
+        buffer.putFloat(this.ballY);
+        buffer.putFloat(this.ballVelocityX);
+        buffer.putFloat(this.ballVelocityY);
+        buffer.putInt(this.ballCollisionCounter);
+        buffer.putInt(this.ballTurboCounter);
+        buffer.putFloat(this.temporaryPaddleX);
+        buffer.putFloat(this.temporaryPaddleY);
+        buffer.putInt(this.temporaryPaddleHitsLeft);
+
+        buffer.putInt(this.puckCounter);
+        buffer.putInt(this.heartFallCounter);
+        for (int i = 0; i < this.puckCounter; i++)
+        {
+            buffer.putFloat(this.puckX[i]);
+            buffer.putFloat(this.puckY[i]);
+            buffer.putFloat(this.puckVelocityX[i]);
+            buffer.putFloat(this.puckVelocityY[i]);
+        }
+        for (int i = 0; i < this.heartFallCounter; i++)
+        {
+            buffer.putFloat(this.fallingHeartX[i]);
+            buffer.putFloat(this.fallingHeartY[i]);
+            buffer.putInt(this.fallingHeartLives[i]);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Encodes the snapshot and writes it to a file. The file is replaced at
+     * once, so a reader never sees half a snapshot.
+     *
+     * @param path The snapshot file.
+     * @throws IOException If the file cannot be written.
+     */
+    public void write(Path path) throws IOException
+    {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.write(temporary, encode());
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @return The brick rows of the game.
+     */
+    public int getBrickRows()
+    {
+        return this.brickRows;
+    }
+
+    /**
+     * @return The brick columns of the game.
+     */
+    public int getBrickCols()
+    {
+        return this.brickCols;
+    }
+
+    /**
+     * @return The number of bricks left.
+     */
+    public int getBrickCounter()
+    {
+        return this.strategyIds.length;
+    }
+
+    /**
+     * @return The number of lives left.
+     */
+    public int getHeartCounter()
+    {
+        return this.heartCounter;
+    }
+
+    /**
+     * @return The number of pucks.
+     */
+    public int getPuckCounter()
+    {
+        return this.puckCounter;
+    }
+}
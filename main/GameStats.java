@@ -0,0 +1,112 @@
+package bricker.main;
+
+/**
+ * What happened in one game session: how long it lasted, how it ended, and
+ * how much the power-ups were in play. Kept by {@link BrickerGameManager}
+ * and reset on every new session.
+ * @author Elyashiv Eitan
+ */
+public class GameStats
+{
+    /**
+     * How a session ended.
+     */
+    public enum Outcome
+    {
+        RUNNING,
+        WON,
+        LOST
+    }
+
+    private long frames;
+    private long turboFrames;
+    private int peakPucks;
+    private int heartsCollected;
+    private Outcome outcome = Outcome.RUNNING;
+
+    /**
+     * Records a simulated frame.
+     *
+     * @param turbo True if the ball was in turbo mode.
+     * @param pucks The number of pucks in the game.
+     */
+    void recordFrame(boolean turbo, int pucks)
+    {
+        this.frames++;
+        if (turbo)
+        {
+            this.turboFrames++;
+        }
+        this.peakPucks = Math.max(this.peakPucks, pucks);
+    }
+
+    /**
+     * Records a falling heart caught by the paddle.
+     */
+    void recordHeartCollected()
+    {
+        this.heartsCollected++;
+    }
+
+    /**
+     * Records the end of the session.
+     *
+     * @param won True if every brick was broken.
+     */
+    void recordEnd(boolean won)
+    {
+        this.outcome = won ? Outcome.WON : Outcome.LOST;
+    }
+
+    /**
+     * Starts a new session.
+     */
+    void reset()
+    {
+        this.frames = 0;
+        this.turboFrames = 0;
+        this.peakPucks = 0;
+        this.heartsCollected = 0;
+        this.outcome = Outcome.RUNNING;
+    }
+
+    /**
+     * @return The number of frames simulated in the session.
+     */
+    public long getFrames()
+    {
+        return this.frames;
+    }
+
+    /**
+     * @return The number of frames the ball spent in turbo mode.
+     */
+    public long getTurboFrames()
+    {
+        return this.turboFrames;
+    }
+
+    /**
+     * @return The largest number of pucks in the game at once.
+     */
+    public int getPeakPucks()
+    {
+        return this.peakPucks;
+    }
+
+    /**
+     * @return The number of falling hearts caught by the paddle.
+     */
+    public int getHeartsCollected()
+    {
+        return this.heartsCollected;
+    }
+
+    /**
+     * @return How the session ended, or RUNNING if it did not end yet.
+     */
+    public Outcome getOutcome()
+    {
+        return this.outcome;
+    }
+}
@@ -0,0 +1,474 @@
+package bricker.main;
+
+import bricker.utils.GameRandom;
+import bricker.utils.VectorMath;
+import danogl.gui.ImageReader;
+import danogl.gui.Sound;
+import danogl.gui.SoundReader;
+import danogl.gui.UserInputListener;
+import danogl.gui.WindowController;
+import danogl.gui.rendering.ImageRenderable;
+import danogl.util.Vector2;
+import java.awt.event.KeyEvent;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs the full Bricker game logic without a window, images or sounds.
+ * The game is stepped with a fixed delta time as fast as the CPU allows,
+ * which makes it suitable for soak and balance runs.
+ *
+ * The window, input and asset readers handed to {@link BrickerGameManager}
+ * are stubs: images and sounds are never loaded, the window dimensions are
+ * fixed, and the "Play again?" dialog is answered automatically. A game
+ * normally starts the next one in place; when it asks the window for a
+ * reset instead, a fresh game is created. Each game is seeded from the
+ * runner's seed, so a run with the same seed and the same inputs is
+ * replayed exactly.
+ *
+ * A runner can also replay a recorded game ({@link #replaying}), at full
+ * speed. A recorded game keeps playing in the same manager after a reset, as
+ * in the window, so the replaying runner resets its game in place too.
+ * @author Elyashiv Eitan
+ */
+public class HeadlessGameRunner
+{
+    // Final definition
+    private static final float DEFAULT_DELTA_TIME = 1f / 60;
+    private static final long DEFAULT_FRAMES = 100_000;
+    private static final int MAX_KEY_CODE = 256;
+    private static final float FOLLOW_DEAD_ZONE = 4;
+    private static final double NANOS_IN_SECOND = 1e9;
+    private static final String REPLAY_PROPERTY = "bricker.replay";
+    private static final String AUTOPILOT_ARG = "autopilot";
+
+    // Variable definition
+    private final int brickRows;
+    private final int brickCols;
+    private final float deltaTime;
+    private final long seed;
+    private final boolean[] pressedKeys = new boolean[MAX_KEY_CODE];
+    private boolean playAgain = true;
+    private long assetReadMillis;
+    private boolean resetRequested;
+    private boolean closeRequested;
+    private long frameCounter;
+    private int sessionCounter;
+    private int previousWarmResets;
+    private InputReplay replay;
+
+    // Object definition
+    private final Vector2 windowDimensions;
+    private final WindowController windowController;
+    private final UserInputListener inputListener;
+    private final ImageReader imageReader;
+    private final SoundReader soundReader;
+    private final SplittableRandom sessionSeeds;
+    private BrickerGameManager game;
+    private Consumer<BrickerGameManager> gameConfigurator = game -> { };
+
+    /**
+     * Runs a headless simulation and prints the simulation speed.
+     * Arguments (all optional): brick rows, brick columns, number of frames,
+     * random seed, and "autopilot" for a paddle that plays by itself. With
+     * -Dbricker.replay=file a recorded game is replayed instead, and the
+     * arguments are ignored. With -Dbricker.level=file the bricks are laid
+     * out from a level file, which also sets the brick rows and columns.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        System.setProperty("java.awt.headless", "true");
+        int brickRows = BrickerGameManager.BRICK_ROWS;
+        int brickCols = BrickerGameManager.BRICK_COLS;
+        long frames = DEFAULT_FRAMES;
+        if (args.length >= 2)
+        {
+            brickRows = Integer.parseInt(args[0]);
+            brickCols = Integer.parseInt(args[1]);
+        }
+        if (args.length >= 3)
+        {
+            frames = Long.parseLong(args[2]);
+        }
+        String levelPath = System.getProperty(
+                BrickerGameManager.LEVEL_PROPERTY);
+        Level level = levelPath == null ? null : Level.open(Path.of(levelPath));
+        String replayPath = System.getProperty(REPLAY_PROPERTY);
+        if (replayPath != null)
+        {
+            replay(Path.of(replayPath), level);
+            return;
+        }
+        long seed = GameRandom.parseSeed(args.length >= 4 ? args[3] : null);
+        boolean autopilot = args.length >= 5 && AUTOPILOT_ARG.equals(args[4]);
+
+        HeadlessGameRunner runner = new HeadlessGameRunner(brickRows,
+                brickCols, DEFAULT_DELTA_TIME, seed);
+        runner.setGameConfigurator(game ->
+        {
+            game.setLevel(level);
+            game.setAutopilot(autopilot);
+        });
+        long start = System.nanoTime();
+        long simulated = runner.runFrames(frames);
+        double seconds = (System.nanoTime() - start) / NANOS_IN_SECOND;
+        System.out.printf("seed %d: %d frames, %d sessions, %.2f s, " +
+                        "%.0f frames/s%n", seed, simulated,
+                runner.getSessionCounter(), seconds, simulated / seconds);
+        if (runner.getGame() != null)
+        {
+            System.out.println("puck pool:  " + runner.getGame().getPuckPool());
+            System.out.println("heart pool: " +
+                    runner.getGame().getHeartPool());
+        }
+    }
+
+    /**
+     * Replays a recorded game until its recording runs out and prints the
+     * replay speed and the game's statistics.
+     */
+    private static void replay(Path path, Level level) throws IOException
+    {
+        HeadlessGameRunner runner = replaying(new InputReplay(path));
+        runner.setGameConfigurator(game -> game.setLevel(level));
+        long start = System.nanoTime();
+        boolean running = runner.step();
+        while (running && !runner.getGame().isReplayFinished())
+        {
+            running = runner.step();
+        }
+        double seconds = (System.nanoTime() - start) / NANOS_IN_SECOND;
+        runner.getGame().closeInputLog();
+        System.out.printf("replayed %d frames, %d sessions, %.2f s, " +
+                        "%.0f frames/s%n", runner.getFrameCounter(),
+                runner.getSessionCounter(), seconds,
+                runner.getFrameCounter() / seconds);
+        GameStats stats = runner.getGame().getStats();
+        System.out.printf("last session: %s after %d frames, %d turbo " +
+                        "frames, %d peak pucks, %d hearts collected%n",
+                stats.getOutcome(), stats.getFrames(), stats.getTurboFrames(),
+                stats.getPeakPucks(), stats.getHeartsCollected());
+    }
+
+    /**
+     * Creates a runner that replays a recorded game: the game is created with
+     * the recording's seed and brick layout, plays the recorded input and
+     * delta times, and is reset in place when it ends.
+     *
+     * @param replay The recording to play.
+     * @return The runner.
+     */
+    public static HeadlessGameRunner replaying(InputReplay replay)
+    {
+        HeadlessGameRunner runner = new HeadlessGameRunner(
+                replay.getBrickRows(), replay.getBrickCols(),
+                DEFAULT_DELTA_TIME, replay.getSeed());
+        runner.replay = replay;
+        return runner;
+    }
+
+    /**
+     * Creates a headless runner using the default window size.
+     *
+     * @param brickRows Number of brick rows in each game.
+     * @param brickCols Number of brick columns in each game.
+     * @param deltaTime The fixed time step, in seconds, of every frame.
+     */
+    public HeadlessGameRunner(int brickRows, int brickCols, float deltaTime)
+    {
+        this(brickRows, brickCols, deltaTime, GameRandom.randomSeed());
+    }
+
+    /**
+     * Creates a headless runner using the default window size, whose games
+     * are all seeded from the given seed.
+     *
+     * @param brickRows Number of brick rows in each game.
+     * @param brickCols Number of brick columns in each game.
+     * @param deltaTime The fixed time step, in seconds, of every frame.
+     * @param seed      The seed the seed of every game is drawn from.
+     */
+    public HeadlessGameRunner(int brickRows, int brickCols, float deltaTime,
+                              long seed)
+    {
+        this.brickRows = brickRows;
+        this.brickCols = brickCols;
+        this.deltaTime = deltaTime;
+        this.seed = seed;
+        this.sessionSeeds = new SplittableRandom(seed);
+        this.windowDimensions = new Vector2(BrickerGameManager.WINDOW_WIDTH,
+                BrickerGameManager.WINDOW_HEIGHT);
+        this.windowController = createWindowController();
+        this.inputListener = createInputListener();
+        this.imageReader = new ImageReader(this.windowController)
+        {
+            @Override
+            public ImageRenderable readImage(String path,
+                                             boolean isTopLeftPixelTransparent)
+            {
+                simulateAssetRead();
+                return null;
+            }
+        };
+        this.soundReader = new SoundReader(this.windowController)
+        {
+            @Override
+            public Sound readSound(String path)
+            {
+                simulateAssetRead();
+                return null;
+            }
+        };
+    }
+
+    /**
+     * Advances the simulation by a single fixed time step, starting a new
+     * game first if needed.
+     *
+     * @return False if the game asked to close the window, true otherwise.
+     */
+    public boolean step()
+    {
+        if (this.closeRequested)
+        {
+            return false;
+        }
+        if (this.game == null || this.resetRequested)
+        {
+            startGame();
+        }
+        this.game.update(this.deltaTime);
+        this.frameCounter++;
+        return !this.closeRequested;
+    }
+
+    /**
+     * Advances the simulation by the given number of frames, or until the
+     * game asks to close the window.
+     *
+     * @param frames The maximal number of frames to simulate.
+     * @return The number of frames actually simulated.
+     */
+    public long runFrames(long frames)
+    {
+        long done = 0;
+        while (done < frames && step())
+        {
+            done++;
+        }
+        return done;
+    }
+
+    /**
+     * Sets the state of a key as seen by the game through its input listener.
+     *
+     * @param keyCode A {@link java.awt.event.KeyEvent} key code.
+     * @param pressed True if the key is held down.
+     * @throws IllegalArgumentException if the key code is not below 256.
+     */
+    public void setKeyPressed(int keyCode, boolean pressed)
+    {
+        if (keyCode < 0 || keyCode >= MAX_KEY_CODE)
+        {
+            throw new IllegalArgumentException("key code " + keyCode +
+                    " is not in 0.." + (MAX_KEY_CODE - 1));
+        }
+        this.pressedKeys[keyCode] = pressed;
+    }
+
+    /**
+     * Holds the arrow key towards the main ball, or neither key while the
+     * paddle is under the ball: a scripted player for headless runs. Call it
+     * before each step.
+     */
+    public void followBall()
+    {
+        float offset = VectorMath.centerX(this.game.getBall()) -
+                VectorMath.centerX(this.game.getUserPaddle());
+        setKeyPressed(KeyEvent.VK_LEFT, offset < -FOLLOW_DEAD_ZONE);
+        setKeyPressed(KeyEvent.VK_RIGHT, offset > FOLLOW_DEAD_ZONE);
+    }
+
+    /**
+     * Sets the answer given to the "Play again?" dialog when a game ends.
+     *
+     * @param playAgain True to start a new game, false to close the window.
+     */
+    public void setPlayAgain(boolean playAgain)
+    {
+        this.playAgain = playAgain;
+    }
+
+    /**
+     * Sets how long every image or sound read takes, to stand in for the disk
+     * I/O and decoding of real assets. Reads are instant by default.
+     *
+     * @param assetReadMillis The duration of a read, in milliseconds.
+     */
+    public void setAssetReadMillis(long assetReadMillis)
+    {
+        this.assetReadMillis = assetReadMillis;
+    }
+
+    /**
+     * @return The image reader handed to every game.
+     */
+    public ImageReader getImageReader()
+    {
+        return this.imageReader;
+    }
+
+    /**
+     * @return The sound reader handed to every game.
+     */
+    public SoundReader getSoundReader()
+    {
+        return this.soundReader;
+    }
+
+    /**
+     * Sets a hook that configures every new game before it is initialized,
+     * e.g. to change its pool capacities or enable the puck engine.
+     *
+     * @param gameConfigurator Called with each new game.
+     */
+    public void setGameConfigurator(Consumer<BrickerGameManager>
+                                            gameConfigurator)
+    {
+        this.gameConfigurator = gameConfigurator;
+    }
+
+    /**
+     * @return The game that is currently simulated, null before the first step.
+     */
+    public BrickerGameManager getGame()
+    {
+        return this.game;
+    }
+
+    /**
+     * @return The seed the seed of every game is drawn from.
+     */
+    public long getSeed()
+    {
+        return this.seed;
+    }
+
+    /**
+     * @return The number of frames simulated so far.
+     */
+    public long getFrameCounter()
+    {
+        return this.frameCounter;
+    }
+
+    /**
+     * @return The number of games started so far, counting the games a game
+     * started in place on "Play again".
+     */
+    public int getSessionCounter()
+    {
+        return this.sessionCounter + this.previousWarmResets +
+                (this.game == null ? 0 : this.game.getWarmResetCounter());
+    }
+
+    /**
+     * Creates and initializes a new game right away, as the window loop does
+     * on reset, without simulating a frame.
+     *
+     * @return The new game.
+     */
+    public BrickerGameManager startGame()
+    {
+        this.resetRequested = false;
+        if (this.game != null && this.replay == null)
+        {
+            this.previousWarmResets += this.game.getWarmResetCounter();
+        }
+        if (this.replay == null)
+        {
+            this.game = new BrickerGameManager(BrickerGameManager.GAME_TITLE,
+                    this.windowDimensions, this.brickRows, this.brickCols,
+                    this.sessionSeeds.nextLong());
+            this.gameConfigurator.accept(this.game);
+        }
+        else if (this.game == null)
+        {
+            this.game = new BrickerGameManager(BrickerGameManager.GAME_TITLE,
+                    this.windowDimensions, this.brickRows, this.brickCols,
+                    this.seed);
+            this.game.setLazyStrategies(this.replay.isLazyStrategies());
+            this.game.setEndless(this.replay.isEndless());
+            this.game.setAutopilot(this.replay.isAutopilot());
+            this.game.setPuckEngineEnabled(this.replay.isPuckEngine());
+            this.game.setInputReplay(this.replay);
+            this.gameConfigurator.accept(this.game);
+        }
+        this.game.initializeGame(this.imageReader, this.soundReader,
+                this.inputListener, this.windowController);
+        this.sessionCounter++;
+        return this.game;
+    }
+
+    /**
+     * Waits for the simulated duration of an asset read.
+     */
+    private void simulateAssetRead()
+    {
+        if (this.assetReadMillis <= 0)
+        {
+            return;
+        }
+        try
+        {
+            Thread.sleep(this.assetReadMillis);
+        }
+        catch (InterruptedException exception)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Creates the window stub: fixed dimensions, automatic answers to
+     * dialogs, and reset/close requests recorded for the step loop.
+     */
+    private WindowController createWindowController()
+    {
+        Map<String, Function<Object[], Object>> handlers = new HashMap<>();
+        handlers.put("getWindowDimensions", args -> this.windowDimensions);
+        handlers.put("openYesNoDialog", args -> this.playAgain);
+        handlers.put("resetGame", args ->
+        {
+            this.resetRequested = true;
+            return null;
+        });
+        handlers.put("closeWindow", args ->
+        {
+            this.closeRequested = true;
+            return null;
+        });
+        return InterfaceStubs.create(WindowController.class, handlers);
+    }
+
+    /**
+     * Creates the input stub, which reports the keys set by
+     * {@link #setKeyPressed(int, boolean)}.
+     */
+    private UserInputListener createInputListener()
+    {
+        Map<String, Function<Object[], Object>> handlers = new HashMap<>();
+        handlers.put("isKeyPressed", args ->
+        {
+            int keyCode = (Integer) args[0];
+            return keyCode >= 0 && keyCode < MAX_KEY_CODE &&
+                    this.pressedKeys[keyCode];
+        });
+        return InterfaceStubs.create(UserInputListener.class, handlers);
+    }
+}
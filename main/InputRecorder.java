@@ -0,0 +1,150 @@
+package bricker.main;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Records the input of every frame into a run-length-encoded binary log,
+ * written through a memory-mapped file.
+ *
+ * The log starts with a header (magic, version, flags, seed, brick rows and
+ * columns) followed by runs of frames that saw the same keys and the same
+ * delta time: a key mask byte, the delta time as a float and the number of
+ * frames as an int. The count of the current run is updated in place every
+ * frame, so the log is complete even if the game crashes, and recording a
+ * frame is a comparison and a store into the mapping. The file is mapped in
+ * chunks and may end with unused zeroed space, which readers skip: a run never
+ * has a count of zero.
+ * @author Elyashiv Eitan
+ */
+public class InputRecorder implements Closeable
+{
+    /**
+     * The first int of every input log.
+     */
+    static final int MAGIC = 0x42524B49;
+    /**
+     * The version of the log format.
+     */
+    static final short VERSION = 1;
+    /**
+     * Header flag: the game drew its brick strategies lazily.
+     */
+    static final short LAZY_STRATEGIES_FLAG = 1;
+    /**
+     * Header flag: the game was in endless mode.
+     */
+    static final short ENDLESS_FLAG = 2;
+    /**
+     * Header flag: the main paddle played by itself.
+     */
+    static final short AUTOPILOT_FLAG = 4;
+    /**
+     * Header flag: the game simulated its pucks with the puck engine.
+     */
+    static final short PUCK_ENGINE_FLAG = 8;
+    /**
+     * The size of the header, in bytes.
+     */
+    static final int HEADER_SIZE = 28;
+    /**
+     * The size of a run, in bytes.
+     */
+    static final int RUN_SIZE = 9;
+    /**
+     * The offset of the frame count within a run, in bytes.
+     */
+    static final int RUN_COUNT_OFFSET = 1 + Float.BYTES;
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private MappedByteBuffer chunk;
+    private long chunkOffset;
+    private int runPosition = -1;
+    private int runMask;
+    private float runDeltaTime;
+    private int runLength;
+
+    /**
+     * Creates a log, replacing any existing file, and writes its header.
+     *
+     * @param path            The log file.
+     * @param seed            The seed of the recorded game.
+     * @param brickRows       The brick rows of the recorded game.
+     * @param brickCols       The brick columns of the recorded game.
+     * @param lazyStrategies  True if the game draws its strategies lazily.
+     * @param endless         True if the game is in endless mode.
+     * @param autopilot       True if the main paddle plays by itself.
+     * @param puckEngine      True if the game simulates its pucks with the
+     *                        puck engine.
+     * @throws IOException If the file cannot be created or mapped.
+     */
+    public InputRecorder(Path path, long seed, int brickRows, int brickCols,
+                         boolean lazyStrategies, boolean endless,
+                         boolean autopilot, boolean puckEngine)
+            throws IOException
+    {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.chunk = this.channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                CHUNK_SIZE);
+        this.chunk.putInt(MAGIC);
+        this.chunk.putShort(VERSION);
+        this.chunk.putShort((short) ((lazyStrategies ? LAZY_STRATEGIES_FLAG :
+                0) | (endless ? ENDLESS_FLAG : 0) |
+                (autopilot ? AUTOPILOT_FLAG : 0) |
+                (puckEngine ? PUCK_ENGINE_FLAG : 0)));
+        this.chunk.putLong(seed);
+        this.chunk.putInt(brickRows);
+        this.chunk.putInt(brickCols);
+    }
+
+    /**
+     * Records one frame.
+     *
+     * @param keyMask   The keys held in the frame, see {@link FrameInput}.
+     * @param deltaTime The delta time of the frame.
+     * @throws IOException If the log cannot grow.
+     */
+    public void record(int keyMask, float deltaTime) throws IOException
+    {
+        if (this.runPosition >= 0 && keyMask == this.runMask &&
+                Float.floatToIntBits(deltaTime) ==
+                        Float.floatToIntBits(this.runDeltaTime))
+        {
+            this.chunk.putInt(this.runPosition + RUN_COUNT_OFFSET,
+                    ++this.runLength);
+            return;
+        }
+        if (this.chunk.remaining() < RUN_SIZE)
+        {
+            this.chunkOffset += this.chunk.position();
+            this.chunk = this.channel.map(FileChannel.MapMode.READ_WRITE,
+                    this.chunkOffset, CHUNK_SIZE);
+        }
+        this.runPosition = this.chunk.position();
+        this.runMask = keyMask;
+        this.runDeltaTime = deltaTime;
+        this.runLength = 1;
+        this.chunk.put((byte) keyMask);
+        this.chunk.putFloat(deltaTime);
+        this.chunk.putInt(this.runLength);
+    }
+
+    /**
+     * Flushes the log to disk and closes the file.
+     *
+     * @throws IOException If the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        this.chunk.force();
+        this.channel.close();
+    }
+}
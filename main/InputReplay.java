@@ -0,0 +1,188 @@
+package bricker.main;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads back an input log written by {@link InputRecorder}, frame by frame,
+ * from a read-only memory mapping of the file.
+ * @author Elyashiv Eitan
+ */
+public class InputReplay implements Closeable
+{
+    private final FileChannel channel;
+    private final MappedByteBuffer log;
+    private final long seed;
+    private final int brickRows;
+    private final int brickCols;
+    private final boolean lazyStrategies;
+    private final boolean endless;
+    private final boolean autopilot;
+    private final boolean puckEngine;
+    private int keyMask;
+    private float deltaTime;
+    private int framesLeftInRun;
+    private long frameCounter;
+
+    /**
+     * Opens a log and reads its header.
+     *
+     * @param path The log file.
+     * @throws IOException If the file cannot be read or is not an input log of
+     *                     this version.
+     */
+    public InputReplay(Path path) throws IOException
+    {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.log = this.channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                this.channel.size());
+        if (this.log.remaining() < InputRecorder.HEADER_SIZE ||
+                this.log.getInt() != InputRecorder.MAGIC)
+        {
+            throw new IOException("not an input log: " + path);
+        }
+        short version = this.log.getShort();
+        if (version != InputRecorder.VERSION)
+        {
+            throw new IOException("unsupported input log version " + version);
+        }
+        short flags = this.log.getShort();
+        this.lazyStrategies = (flags & InputRecorder.LAZY_STRATEGIES_FLAG) != 0;
+        this.endless = (flags & InputRecorder.ENDLESS_FLAG) != 0;
+        this.autopilot = (flags & InputRecorder.AUTOPILOT_FLAG) != 0;
+        this.puckEngine = (flags & InputRecorder.PUCK_ENGINE_FLAG) != 0;
+        this.seed = this.log.getLong();
+        this.brickRows = this.log.getInt();
+        this.brickCols = this.log.getInt();
+    }
+
+    /**
+     * Moves to the next recorded frame.
+     *
+     * @return False if the log has no more frames.
+     */
+    public boolean nextFrame()
+    {
+        if (isFinished())
+        {
+            return false;
+        }
+        if (this.framesLeftInRun == 0)
+        {
+            this.keyMask = this.log.get();
+            this.deltaTime = this.log.getFloat();
+            this.framesLeftInRun = this.log.getInt();
+        }
+        this.framesLeftInRun--;
+        this.frameCounter++;
+        return true;
+    }
+
+    /**
+     * @return The keys held in the current frame, see {@link FrameInput}.
+     */
+    public int getKeyMask()
+    {
+        return this.keyMask;
+    }
+
+    /**
+     * @return The delta time of the current frame.
+     */
+    public float getDeltaTime()
+    {
+        return this.deltaTime;
+    }
+
+    /**
+     * @return The number of frames replayed so far.
+     */
+    public long getFrameCounter()
+    {
+        return this.frameCounter;
+    }
+
+    /**
+     * @return True once every recorded frame was replayed.
+     */
+    public boolean isFinished()
+    {
+        // A count of zero is the unused space after the last run
+        return this.framesLeftInRun == 0 &&
+                (this.log.remaining() < InputRecorder.RUN_SIZE ||
+                        this.log.getInt(this.log.position() +
+                                InputRecorder.RUN_COUNT_OFFSET) <= 0);
+    }
+
+    /**
+     * @return The seed of the recorded game.
+     */
+    public long getSeed()
+    {
+        return this.seed;
+    }
+
+    /**
+     * @return The brick rows of the recorded game.
+     */
+    public int getBrickRows()
+    {
+        return this.brickRows;
+    }
+
+    /**
+     * @return The brick columns of the recorded game.
+     */
+    public int getBrickCols()
+    {
+        return this.brickCols;
+    }
+
+    /**
+     * @return True if the recorded game drew its strategies lazily.
+     */
+    public boolean isLazyStrategies()
+    {
+        return this.lazyStrategies;
+    }
+
+    /**
+     * @return True if the recorded game was in endless mode.
+     */
+    public boolean isEndless()
+    {
+        return this.endless;
+    }
+
+    /**
+     * @return True if the main paddle of the recorded game played by itself.
+     */
+    public boolean isAutopilot()
+    {
+        return this.autopilot;
+    }
+
+    /**
+     * @return True if the recorded game simulated its pucks with the puck
+     * engine.
+     */
+    public boolean isPuckEngine()
+    {
+        return this.puckEngine;
+    }
+
+    /**
+     * Closes the file.
+     *
+     * @throws IOException If the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        this.channel.close();
+    }
+}
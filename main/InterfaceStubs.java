@@ -0,0 +1,138 @@
+package bricker.main;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Builds lightweight stand-ins for danogl interfaces (such as
+ * {@link danogl.gui.WindowController} and {@link danogl.gui.UserInputListener})
+ * when the game runs without a real window.
+ * Only the methods named in the handler map do real work, every other method
+ * returns the default value of its return type.
+ * @author Elyashiv Eitan
+ */
+final class InterfaceStubs
+{
+    private InterfaceStubs()
+    {
+    }
+
+    /**
+     * Creates a stub implementation of the given interface.
+     *
+     * @param type     The interface to implement.
+     * @param handlers Method name to handler, each handler receives the call
+     *                 arguments (never null) and returns the call result.
+     * @param <T>      The interface type.
+     * @return A stub instance of the interface.
+     */
+    static <T> T create(Class<T> type, Map<String, Function<Object[], Object>>
+                                                                      handlers)
+    {
+        Object stub = Proxy.newProxyInstance(type.getClassLoader(),
+                new Class<?>[]{type}, (proxy, method, args) ->
+                {
+                    Object[] arguments = args == null ? new Object[0] : args;
+                    Function<Object[], Object> handler =
+                            handlers.get(method.getName());
+                    if (handler != null)
+                    {
+                        return handler.apply(arguments);
+                    }
+                    switch (method.getName())
+                    {
+                        case "equals":
+                            return proxy == arguments[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "toString":
+                            return type.getSimpleName() + " stub";
+                        default:
+                            return defaultValue(method.getReturnType());
+                    }
+                });
+        return type.cast(stub);
+    }
+
+    /**
+     * Creates a wrapper of an interface implementation: the methods named in
+     * the handler map do their own work, every other call goes to the
+     * wrapped instance.
+     *
+     * @param type     The interface to implement.
+     * @param delegate The wrapped instance.
+     * @param handlers Method name to handler, each handler receives the call
+     *                 arguments (never null) and returns the call result.
+     * @param <T>      The interface type.
+     * @return A wrapper of the instance.
+     */
+    static <T> T wrap(Class<T> type, T delegate,
+                      Map<String, Function<Object[], Object>> handlers)
+    {
+        Object wrapper = Proxy.newProxyInstance(type.getClassLoader(),
+                new Class<?>[]{type}, (proxy, method, args) ->
+                {
+                    Function<Object[], Object> handler =
+                            handlers.get(method.getName());
+                    if (handler != null)
+                    {
+                        return handler.apply(args == null ? new Object[0] :
+                                args);
+                    }
+                    try
+                    {
+                        return method.invoke(delegate, args);
+                    }
+                    catch (InvocationTargetException exception)
+                    {
+                        throw exception.getCause();
+                    }
+                });
+        return type.cast(wrapper);
+    }
+
+    /**
+     * Returns the default value of a method return type.
+     *
+     * @param returnType The return type of the stubbed method.
+     * @return false, zero or null, depending on the type.
+     */
+    private static Object defaultValue(Class<?> returnType)
+    {
+        if (!returnType.isPrimitive() || returnType == void.class)
+        {
+            return null;
+        }
+        if (returnType == boolean.class)
+        {
+            return false;
+        }
+        if (returnType == char.class)
+        {
+            return (char) 0;
+        }
+        if (returnType == long.class)
+        {
+            return 0L;
+        }
+        if (returnType == float.class)
+        {
+            return 0f;
+        }
+        if (returnType == double.class)
+        {
+            return 0d;
+        }
+        if (returnType == byte.class)
+        {
+            return (byte) 0;
+        }
+        if (returnType == short.class)
+        {
+            return (short) 0;
+        }
+        return 0;
+    }
+}
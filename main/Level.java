@@ -0,0 +1,226 @@
+package bricker.main;
+
+import danogl.util.Vector2;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+
+/**
+ * A brick layout stored in a compact binary file that is mapped into memory
+ * instead of parsed, so layouts of millions of bricks open in the time it
+ * takes to map the file. {@link BrickerGameManager#setLevel(Level)} lays the
+ * bricks out straight from the mapped buffer. Levels are written by
+ * {@link LevelConverter} from a human-editable text format.
+ *
+ * The file is a 32 byte header (magic, version, flags, brick rows and
+ * columns, optional brick width and height, and the size of the strategy
+ * table), the bricks as a bitmap of longs indexed by cell (row by row, as
+ * in {@link bricker.gameobjects.BrickField}), a byte per cell indexing the
+ * strategy table, and the table itself: a short strategy id per entry (see
+ * {@link bricker.brick_strategies.CollsionStrategyFactory#getStrategyId}),
+ * or {@link #RANDOM_STRATEGY_ID} for bricks whose strategy is drawn when the
+ * bricks are laid out. The bitmap starts on a long boundary.
+ * @author Elyashiv Eitan
+ */
+public class Level
+{
+    /**
+     * The strategy id of bricks whose strategy is drawn at random.
+     */
+    public static final short RANDOM_STRATEGY_ID = -1;
+    /**
+     * The most entries of a strategy table.
+     */
+    public static final int MAX_STRATEGIES = 256;
+    /**
+     * The first int of every level file.
+     */
+    static final int MAGIC = 0x42524B4C;
+    /**
+     * The version of the level format.
+     */
+    static final short VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final short BRICK_SIZE_FLAG = 1;
+
+    private final ByteBuffer buffer;
+    private final int rows;
+    private final int cols;
+    private final Vector2 brickSize;
+    private final short[] strategyIds;
+    private final int bitmapSize;
+
+    /**
+     * Reads the header and the strategy table of a level.
+     */
+    private Level(ByteBuffer buffer) throws IOException
+    {
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt(0) != MAGIC)
+        {
+            throw new IOException("not a level");
+        }
+        short version = buffer.getShort(4);
+        if (version != VERSION)
+        {
+            throw new IOException("unsupported level version " + version);
+        }
+        short flags = buffer.getShort(6);
+        this.rows = buffer.getInt(8);
+        this.cols = buffer.getInt(12);
+        this.brickSize = (flags & BRICK_SIZE_FLAG) == 0 ? null :
+                new Vector2(buffer.getFloat(16), buffer.getFloat(20));
+        int strategies = buffer.getInt(24);
+        long cells = (long) this.rows * this.cols;
+        if (this.rows <= 0 || this.cols <= 0 || cells > Integer.MAX_VALUE ||
+                strategies < 0 || strategies > MAX_STRATEGIES)
+        {
+            throw new IOException("corrupt level header");
+        }
+        this.bitmapSize = (int) ((cells + Long.SIZE - 1) / Long.SIZE) *
+                Long.BYTES;
+        long size = HEADER_SIZE + (long) this.bitmapSize + cells +
+                (long) strategies * Short.BYTES;
+        if (buffer.capacity() < size)
+        {
+            throw new IOException("truncated level");
+        }
+        this.buffer = buffer;
+        this.strategyIds = new short[strategies];
+        int tableOffset = HEADER_SIZE + this.bitmapSize + (int) cells;
+        for (int i = 0; i < strategies; i++)
+        {
+            this.strategyIds[i] = buffer.getShort(tableOffset +
+                    i * Short.BYTES);
+        }
+    }
+
+    /**
+     * Maps a level file into memory. Only the header and the strategy table
+     * are read; the bricks are read from the mapped file when they are laid
+     * out.
+     *
+     * @param path The level file.
+     * @return The level.
+     * @throws IOException If the file cannot be mapped or is not a level of
+     *                     this version.
+     */
+    public static Level open(Path path) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.READ))
+        {
+            // The mapping stays valid once the channel is closed
+            return new Level(channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    channel.size()));
+        }
+    }
+
+    /**
+     * Writes a level file.
+     *
+     * @param path            The level file, replaced if it exists.
+     * @param rows            The brick rows.
+     * @param cols            The brick columns.
+     * @param aliveBricks     The cells holding a brick, row by row.
+     * @param strategyIndexes The strategy table index of each cell.
+     * @param strategyIds     The strategy table.
+     * @param brickSize       The width and height of every brick, or null to
+     *                        fit the columns to the window.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void write(Path path, int rows, int cols, BitSet aliveBricks,
+                             byte[] strategyIndexes, short[] strategyIds,
+                             Vector2 brickSize) throws IOException
+    {
+        int cells = rows * cols;
+        if (strategyIndexes.length != cells ||
+                strategyIds.length > MAX_STRATEGIES)
+        {
+            throw new IllegalArgumentException("a " + rows + "x" + cols +
+                    " level has " + cells + " strategy indexes and up to " +
+                    MAX_STRATEGIES + " strategies");
+        }
+        long[] words = aliveBricks.toLongArray();
+        int bitmapWords = (cells + Long.SIZE - 1) / Long.SIZE;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE +
+                bitmapWords * Long.BYTES + cells +
+                strategyIds.length * Short.BYTES);
+        buffer.putInt(MAGIC);
+        buffer.putShort(VERSION);
+        buffer.putShort(brickSize == null ? 0 : BRICK_SIZE_FLAG);
+        buffer.putInt(rows);
+        buffer.putInt(cols);
+        buffer.putFloat(brickSize == null ? 0 : brickSize.x());
+        buffer.putFloat(brickSize == null ? 0 : brickSize.y());
+        buffer.putInt(strategyIds.length);
+        buffer.position(HEADER_SIZE);
+        for (int i = 0; i < bitmapWords; i++)
+        {
+            buffer.putLong(i < words.length ? words[i] : 0);
+        }
+        buffer.put(strategyIndexes);
+        for (short strategyId : strategyIds)
+        {
+            buffer.putShort(strategyId);
+        }
+        Files.write(path, buffer.array());
+    }
+
+    /**
+     * @return The brick rows of the level.
+     */
+    public int getRows()
+    {
+        return this.rows;
+    }
+
+    /**
+     * @return The brick columns of the level.
+     */
+    public int getCols()
+    {
+        return this.cols;
+    }
+
+    /**
+     * @return The width and height of every brick, or null if the bricks are
+     * fitted to the window.
+     */
+    public Vector2 getBrickSize()
+    {
+        return this.brickSize;
+    }
+
+    /**
+     * @return The strategy ids of the strategy table, see
+     * {@link #RANDOM_STRATEGY_ID}.
+     */
+    public short[] getStrategyIds()
+    {
+        return this.strategyIds.clone();
+    }
+
+    /**
+     * @return The cells holding a brick, as the words of a bit set indexed
+     * by cell, read from the mapped file.
+     */
+    public LongBuffer getAliveBricks()
+    {
+        return this.buffer.slice(HEADER_SIZE, this.bitmapSize).asLongBuffer();
+    }
+
+    /**
+     * @return The strategy table index of each cell, a byte per cell row by
+     * row, read from the mapped file.
+     */
+    public ByteBuffer getStrategyIndexes()
+    {
+        return this.buffer.slice(HEADER_SIZE + this.bitmapSize,
+                this.rows * this.cols);
+    }
+}
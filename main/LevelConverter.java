@@ -0,0 +1,238 @@
+package bricker.main;
+
+import bricker.brick_strategies.CollsionStrategyFactory;
+import bricker.brick_strategies.StrategyType;
+import danogl.util.Vector2;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts a level from its text format to the binary format of
+ * {@link Level}:
+ *
+ * <pre>
+ * ; A comment.
+ * &#64;brick 60 15
+ * &#64;key D MORE_BALLS TURBO
+ * ##########
+ * #BB.DD.BB#
+ * #.MLPT...#
+ * </pre>
+ *
+ * Every other line is a row of bricks, top to bottom, with a character per
+ * brick; short rows are padded with empty cells. '.' and ' ' are empty
+ * cells, '#' is a brick whose strategy is drawn at random, and B, M, L, P
+ * and T are bricks with the basic, more balls, add life, temporary paddle
+ * and turbo strategies. "&#64;key" gives a character the strategy made of
+ * one to three behaviors (two or three make a double behavior), or RANDOM.
+ * "&#64;brick" sets the width and height of every brick; without it the
+ * bricks are fitted to the window. Blank lines are ignored.
+ *
+ * Usage: {@code java bricker.main.LevelConverter level.txt level.lvl}
+ * @author Elyashiv Eitan
+ */
+public class LevelConverter
+{
+    private static final char COMMENT = ';';
+    private static final String BRICK_DIRECTIVE = "@brick";
+    private static final String KEY_DIRECTIVE = "@key";
+    private static final String RANDOM_KEY = "RANDOM";
+    private static final String EMPTY_CELLS = ". ";
+
+    private final Map<Character, Short> keys = new HashMap<>();
+    private final List<String> rows = new ArrayList<>();
+    private Vector2 brickSize;
+    private int cols;
+
+    /**
+     * Converts the level file given as the first argument into the binary
+     * file given as the second.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length != 2)
+        {
+            System.err.println("usage: java bricker.main.LevelConverter " +
+                    "level.txt level.lvl");
+            System.exit(1);
+        }
+        convert(Path.of(args[0]), Path.of(args[1]));
+    }
+
+    /**
+     * Converts a level from the text format to the binary format.
+     *
+     * @param text   The level in the text format.
+     * @param binary The level file to write, replaced if it exists.
+     * @throws IOException If a file cannot be read or written, or the text is
+     *                     not a level.
+     */
+    public static void convert(Path text, Path binary) throws IOException
+    {
+        LevelConverter converter = new LevelConverter();
+        try (BufferedReader reader = Files.newBufferedReader(text))
+        {
+            int lineNumber = 0;
+            for (String line = reader.readLine(); line != null;
+                 line = reader.readLine())
+            {
+                lineNumber++;
+                try
+                {
+                    converter.parseLine(line);
+                }
+                catch (IllegalArgumentException exception)
+                {
+                    throw new IOException(text + ":" + lineNumber + ": " +
+                            exception.getMessage(), exception);
+                }
+            }
+        }
+        converter.write(binary);
+    }
+
+    /**
+     * Starts with the default keys.
+     */
+    private LevelConverter()
+    {
+        this.keys.put('#', Level.RANDOM_STRATEGY_ID);
+        this.keys.put('B', strategyId(StrategyType.BASIC));
+        this.keys.put('M', strategyId(StrategyType.MORE_BALLS));
+        this.keys.put('L', strategyId(StrategyType.ADD_LIFE));
+        this.keys.put('P', strategyId(StrategyType.TEMPORARY_PADDLE));
+        this.keys.put('T', strategyId(StrategyType.TURBO));
+    }
+
+    /**
+     * Reads a directive, a comment or a row of bricks.
+     */
+    private void parseLine(String line)
+    {
+        if (line.isBlank() || line.charAt(0) == COMMENT)
+        {
+            return;
+        }
+        String[] words = line.trim().split("\\s+");
+        if (words[0].equals(BRICK_DIRECTIVE))
+        {
+            if (words.length != 3)
+            {
+                throw new IllegalArgumentException(
+                        "expected " + BRICK_DIRECTIVE + " width height");
+            }
+            this.brickSize = new Vector2(Float.parseFloat(words[1]),
+                    Float.parseFloat(words[2]));
+        }
+        else if (words[0].equals(KEY_DIRECTIVE))
+        {
+            parseKey(words);
+        }
+        else if (words[0].charAt(0) == '@')
+        {
+            throw new IllegalArgumentException("unknown directive " +
+                    words[0]);
+        }
+        else
+        {
+            for (int col = 0; col < line.length(); col++)
+            {
+                char key = line.charAt(col);
+                if (EMPTY_CELLS.indexOf(key) < 0 && !this.keys.containsKey(key))
+                {
+                    throw new IllegalArgumentException("unknown brick '" +
+                            key + "'");
+                }
+            }
+            this.rows.add(line);
+            this.cols = Math.max(this.cols, line.length());
+        }
+    }
+
+    /**
+     * Reads a "@key character behaviors..." directive.
+     */
+    private void parseKey(String[] words)
+    {
+        if (words.length < 3 || words[1].length() != 1 ||
+                EMPTY_CELLS.indexOf(words[1].charAt(0)) >= 0)
+        {
+            throw new IllegalArgumentException("expected " + KEY_DIRECTIVE +
+                    " character behaviors...");
+        }
+        if (words.length == 3 && words[2].equals(RANDOM_KEY))
+        {
+            this.keys.put(words[1].charAt(0), Level.RANDOM_STRATEGY_ID);
+            return;
+        }
+        StrategyType[] types = new StrategyType[words.length - 2];
+        for (int i = 0; i < types.length; i++)
+        {
+            types[i] = StrategyType.valueOf(words[i + 2]);
+        }
+        this.keys.put(words[1].charAt(0), strategyId(types));
+    }
+
+    /**
+     * Writes the rows read in the binary format, with a strategy table of
+     * the distinct strategies used.
+     */
+    private void write(Path binary) throws IOException
+    {
+        if (this.rows.isEmpty())
+        {
+            throw new IOException("a level needs a row of bricks");
+        }
+        int cells = this.rows.size() * this.cols;
+        BitSet aliveBricks = new BitSet(cells);
+        byte[] strategyIndexes = new byte[cells];
+        short[] strategyIds = new short[Level.MAX_STRATEGIES];
+        Map<Short, Integer> strategyIndex = new HashMap<>();
+        for (int row = 0; row < this.rows.size(); row++)
+        {
+            String line = this.rows.get(row);
+            for (int col = 0; col < line.length(); col++)
+            {
+                Short strategyId = this.keys.get(line.charAt(col));
+                if (strategyId == null)
+                {
+                    continue;
+                }
+                Integer index = strategyIndex.get(strategyId);
+                if (index == null)
+                {
+                    index = strategyIndex.size();
+                    if (index == Level.MAX_STRATEGIES)
+                    {
+                        throw new IOException("more than " +
+                                Level.MAX_STRATEGIES + " brick strategies");
+                    }
+                    strategyIds[index] = strategyId;
+                    strategyIndex.put(strategyId, index);
+                }
+                int cell = row * this.cols + col;
+                aliveBricks.set(cell);
+                strategyIndexes[cell] = (byte) (int) index;
+            }
+        }
+        short[] table = new short[Math.max(1, strategyIndex.size())];
+        System.arraycopy(strategyIds, 0, table, 0, strategyIndex.size());
+        Level.write(binary, this.rows.size(), this.cols, aliveBricks,
+                strategyIndexes, table, this.brickSize);
+    }
+
+    /**
+     * @return The id of the strategy made of the given behaviors.
+     */
+    private static short strategyId(StrategyType... types)
+    {
+        return (short) CollsionStrategyFactory.getStrategyId(types);
+    }
+}
@@ -0,0 +1,106 @@
+package bricker.utils;
+
+import java.util.SplittableRandom;
+
+/**
+ * Draws indices from a fixed discrete distribution in O(1) per draw, using
+ * Vose's alias method. Building the tables costs O(n) once; every draw then
+ * takes one random column and one biased coin flip.
+ * @author Elyashiv Eitan
+ */
+public class AliasSampler
+{
+    private final double[] probability;
+    private final int[] alias;
+
+    /**
+     * Builds the alias tables of a weight table.
+     *
+     * @param weights Non-negative weights, one per index, with a positive sum.
+     * @throws IllegalArgumentException If a weight is negative or all are zero.
+     */
+    public AliasSampler(double[] weights)
+    {
+        int size = weights.length;
+        double sum = 0;
+        for (double weight : weights)
+        {
+            if (weight < 0 || Double.isNaN(weight))
+            {
+                throw new IllegalArgumentException("negative weight " + weight);
+            }
+            sum += weight;
+        }
+        if (size == 0 || sum <= 0)
+        {
+            throw new IllegalArgumentException("no positive weight");
+        }
+
+        this.probability = new double[size];
+        this.alias = new int[size];
+        double[] scaled = new double[size];
+        int[] small = new int[size];
+        int[] large = new int[size];
+        int smallCounter = 0;
+        int largeCounter = 0;
+        for (int i = 0; i < size; i++)
+        {
+            scaled[i] = weights[i] * size / sum;
+            if (scaled[i] < 1)
+            {
+                small[smallCounter++] = i;
+            }
+            else
+            {
+                large[largeCounter++] = i;
+            }
+        }
+        // Pair each under-full column with an over-full one
+        while (smallCounter > 0 && largeCounter > 0)
+        {
+            int less = small[--smallCounter];
+            int more = large[--largeCounter];
+            this.probability[less] = scaled[less];
+            this.alias[less] = more;
+            scaled[more] = scaled[more] + scaled[less] - 1;
+            if (scaled[more] < 1)
+            {
+                small[smallCounter++] = more;
+            }
+            else
+            {
+                large[largeCounter++] = more;
+            }
+        }
+        // Whatever is left is full up to rounding errors
+        while (largeCounter > 0)
+        {
+            this.probability[large[--largeCounter]] = 1;
+        }
+        while (smallCounter > 0)
+        {
+            this.probability[small[--smallCounter]] = 1;
+        }
+    }
+
+    /**
+     * Draws an index with probability proportional to its weight.
+     *
+     * @param random The stream to draw from.
+     * @return An index into the weight table.
+     */
+    public int sample(SplittableRandom random)
+    {
+        int column = random.nextInt(this.probability.length);
+        return random.nextDouble() < this.probability[column] ? column :
+                this.alias[column];
+    }
+
+    /**
+     * @return The number of indices in the distribution.
+     */
+    public int size()
+    {
+        return this.probability.length;
+    }
+}
@@ -0,0 +1,200 @@
+package bricker.utils;
+
+import danogl.gui.ImageReader;
+import danogl.gui.Sound;
+import danogl.gui.SoundReader;
+import danogl.gui.rendering.ImageRenderable;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caches decoded images and sounds by path (and, for images, by the
+ * transparency flag), so they are read from disk once per process and every
+ * later game or reset gets the same instances.
+ *
+ * Assets are requested first and collected later: each missing asset starts
+ * decoding on a background thread as soon as it is requested, so a game that
+ * requests all of its assets up front decodes them concurrently. Java 17 has
+ * no virtual threads, so a cached pool of daemon threads is used instead.
+ * @author Elyashiv Eitan
+ */
+public class AssetCache
+{
+    private static final String IMAGE_KEY_PREFIX = "image:";
+    private static final String SOUND_KEY_PREFIX = "sound:";
+    private static final String TRANSPARENT_SUFFIX = ":transparent";
+
+    private final Map<String, CompletableFuture<?>> assets =
+            new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private ExecutorService decoder;
+
+    /**
+     * Starts decoding an image unless it is already cached or decoding.
+     *
+     * @param imageReader               Reads the image on a miss.
+     * @param path                      The image path.
+     * @param isTopLeftPixelTransparent The transparency flag of the reader.
+     */
+    public void requestImage(ImageReader imageReader, String path,
+                             boolean isTopLeftPixelTransparent)
+    {
+        request(imageKey(path, isTopLeftPixelTransparent),
+                () -> imageReader.readImage(path, isTopLeftPixelTransparent));
+    }
+
+    /**
+     * Starts decoding a sound unless it is already cached or decoding.
+     *
+     * @param soundReader Reads the sound on a miss.
+     * @param path        The sound path.
+     */
+    public void requestSound(SoundReader soundReader, String path)
+    {
+        request(SOUND_KEY_PREFIX + path, () -> soundReader.readSound(path));
+    }
+
+    /**
+     * Returns a requested image, waiting for it to be decoded if needed.
+     *
+     * @param path                      The image path.
+     * @param isTopLeftPixelTransparent The transparency flag it was requested
+     *                                  with.
+     * @return The decoded image.
+     * @throws IllegalStateException If the image was never requested.
+     */
+    public ImageRenderable getImage(String path,
+                                    boolean isTopLeftPixelTransparent)
+    {
+        return (ImageRenderable) collect(imageKey(path,
+                isTopLeftPixelTransparent));
+    }
+
+    /**
+     * Returns a requested sound, waiting for it to be decoded if needed.
+     *
+     * @param path The sound path.
+     * @return The decoded sound.
+     * @throws IllegalStateException If the sound was never requested.
+     */
+    public Sound getSound(String path)
+    {
+        return (Sound) collect(SOUND_KEY_PREFIX + path);
+    }
+
+    /**
+     * Forgets every cached asset, so the next requests read from disk again.
+     */
+    public void clear()
+    {
+        this.assets.clear();
+    }
+
+    /**
+     * @return The number of requests served by a cached or decoding asset.
+     */
+    public long getHits()
+    {
+        return this.hits.get();
+    }
+
+    /**
+     * @return The number of requests that had to read an asset from disk.
+     */
+    public long getMisses()
+    {
+        return this.misses.get();
+    }
+
+    /**
+     * @return A one-line summary of the cache counters.
+     */
+    @Override
+    public String toString()
+    {
+        return String.format("assets=%d hits=%d misses=%d", this.assets.size(),
+                getHits(), getMisses());
+    }
+
+    /**
+     * Counts a request and starts decoding the asset on a miss.
+     */
+    private void request(String key, Supplier<?> reader)
+    {
+        boolean[] missed = new boolean[1];
+        this.assets.computeIfAbsent(key, k ->
+        {
+            missed[0] = true;
+            return CompletableFuture.supplyAsync(reader, decoder());
+        });
+        if (missed[0])
+        {
+            this.misses.incrementAndGet();
+        }
+        else
+        {
+            this.hits.incrementAndGet();
+        }
+    }
+
+    /**
+     * Waits for a requested asset. An asset that failed to decode is dropped
+     * from the cache, so the next request reads it again.
+     */
+    private Object collect(String key)
+    {
+        CompletableFuture<?> asset = this.assets.get(key);
+        if (asset == null)
+        {
+            throw new IllegalStateException("asset was not requested: " + key);
+        }
+        try
+        {
+            return asset.join();
+        }
+        catch (CompletionException exception)
+        {
+            this.assets.remove(key, asset);
+            Throwable cause = exception.getCause();
+            if (cause instanceof RuntimeException)
+            {
+                throw (RuntimeException) cause;
+            }
+            throw exception;
+        }
+    }
+
+    /**
+     * @return The pool that decodes assets, created on first use.
+     */
+    private synchronized ExecutorService decoder()
+    {
+        if (this.decoder == null)
+        {
+            this.decoder = Executors.newCachedThreadPool(runnable ->
+            {
+                Thread thread = new Thread(runnable, "asset-decoder");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return this.decoder;
+    }
+
+    /**
+     * @return The cache key of an image.
+     */
+    private static String imageKey(String path,
+                                   boolean isTopLeftPixelTransparent)
+    {
+        return IMAGE_KEY_PREFIX + path + (isTopLeftPixelTransparent ?
+                TRANSPARENT_SUFFIX : "");
+    }
+}
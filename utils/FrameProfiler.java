@@ -0,0 +1,248 @@
+package bricker.utils;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Measures where the time of a frame goes: one {@link LatencyHistogram} per
+ * phase of {@code BrickerGameManager.update}, and one per collision strategy
+ * implementation, whose count is the number of invocations.
+ *
+ * A disabled profiler does nothing but return 0 from {@link #start()} and
+ * return early from the record methods, so instrumented code costs a branch.
+ * Snapshots are plain-text reports of p50/p99/p99.9/max per histogram. A
+ * profiler is not thread-safe: games played at the same time need one each.
+ * @author Elyashiv Eitan
+ */
+public class FrameProfiler
+{
+    /**
+     * The instrumented phases of a frame.
+     */
+    public enum Phase
+    {
+        FRAME,
+        PHYSICS,
+        EFFECTS,
+        CLEAN_UP,
+        BALL_FALL,
+        GAME_END
+    }
+
+    /**
+     * The system property naming the file snapshots are written to. Setting
+     * it enables the profiler from startup.
+     */
+    public static final String OUTPUT_PROPERTY = "bricker.profile";
+    private static final String DEFAULT_OUTPUT = "bricker-profile.txt";
+    private static final double NANOS_IN_MICRO = 1e3;
+
+    private final LatencyHistogram[] phases =
+            new LatencyHistogram[Phase.values().length];
+    private final Map<Class<?>, LatencyHistogram> strategies =
+            new LinkedHashMap<>();
+    private boolean enabled;
+    private Path output;
+    private boolean shutdownHookAdded;
+
+    /**
+     * Constructs a disabled profiler.
+     */
+    public FrameProfiler()
+    {
+        for (int i = 0; i < this.phases.length; i++)
+        {
+            this.phases[i] = new LatencyHistogram();
+        }
+        this.output = Paths.get(DEFAULT_OUTPUT);
+    }
+
+    /**
+     * Creates a profiler that is enabled, and writes a snapshot at exit, if
+     * the {@link #OUTPUT_PROPERTY} system property is set.
+     *
+     * @return The profiler.
+     */
+    public static FrameProfiler fromSystemProperty()
+    {
+        FrameProfiler profiler = new FrameProfiler();
+        String output = System.getProperty(OUTPUT_PROPERTY);
+        if (output != null && !output.isEmpty())
+        {
+            profiler.setOutput(Paths.get(output));
+            profiler.setEnabled(true);
+            profiler.writeSnapshotAtExit();
+        }
+        return profiler;
+    }
+
+    /**
+     * @return True if the profiler records.
+     */
+    public boolean isEnabled()
+    {
+        return this.enabled;
+    }
+
+    /**
+     * Turns recording on or off. Recorded data is kept.
+     *
+     * @param enabled True to record.
+     */
+    public void setEnabled(boolean enabled)
+    {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Sets the file {@link #writeSnapshot()} writes to.
+     *
+     * @param output The snapshot file.
+     */
+    public void setOutput(Path output)
+    {
+        this.output = output;
+    }
+
+    /**
+     * Starts timing a section.
+     *
+     * @return The start time to pass to a record method, or 0 if disabled.
+     */
+    public long start()
+    {
+        return this.enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records the time since a start of a phase.
+     *
+     * @param phase The timed phase.
+     * @param start The value {@link #start()} returned.
+     */
+    public void record(Phase phase, long start)
+    {
+        if (!this.enabled || start == 0)
+        {
+            return;
+        }
+        this.phases[phase.ordinal()].record(System.nanoTime() - start);
+    }
+
+    /**
+     * Records the time since a start of a collision strategy invocation.
+     *
+     * @param strategy The strategy that ran.
+     * @param start    The value {@link #start()} returned.
+     */
+    public void recordStrategy(Object strategy, long start)
+    {
+        if (!this.enabled || start == 0)
+        {
+            return;
+        }
+        long nanos = System.nanoTime() - start;
+        this.strategies.computeIfAbsent(strategy.getClass(),
+                type -> new LatencyHistogram()).record(nanos);
+    }
+
+    /**
+     * @param phase A phase of the frame.
+     * @return The histogram of the phase.
+     */
+    public LatencyHistogram getPhase(Phase phase)
+    {
+        return this.phases[phase.ordinal()];
+    }
+
+    /**
+     * Forgets every recorded duration.
+     */
+    public void reset()
+    {
+        for (LatencyHistogram phase : this.phases)
+        {
+            phase.reset();
+        }
+        this.strategies.clear();
+    }
+
+    /**
+     * Writes a snapshot to the output file, replacing its content.
+     *
+     * @throws IOException If the file cannot be written.
+     */
+    public void writeSnapshot() throws IOException
+    {
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(
+                this.output)))
+        {
+            writeSnapshot(writer);
+        }
+    }
+
+    /**
+     * Writes a snapshot.
+     *
+     * @param writer Receives the report.
+     */
+    public void writeSnapshot(PrintWriter writer)
+    {
+        writer.printf("%-36s %10s %10s %10s %10s %10s%n", "section (us)",
+                "count", "p50", "p99", "p99.9", "max");
+        for (Phase phase : Phase.values())
+        {
+            writeLine(writer, phase.name(), this.phases[phase.ordinal()]);
+        }
+        for (Map.Entry<Class<?>, LatencyHistogram> entry :
+                this.strategies.entrySet())
+        {
+            writeLine(writer, entry.getKey().getSimpleName(),
+                    entry.getValue());
+        }
+        writer.flush();
+    }
+
+    /**
+     * Writes a snapshot when the JVM exits. Only registers once.
+     */
+    public synchronized void writeSnapshotAtExit()
+    {
+        if (this.shutdownHookAdded)
+        {
+            return;
+        }
+        this.shutdownHookAdded = true;
+        Runtime.getRuntime().addShutdownHook(new Thread(() ->
+        {
+            try
+            {
+                writeSnapshot();
+            }
+            catch (IOException exception)
+            {
+                System.err.println("Could not write the frame profile: " +
+                        exception.getMessage());
+            }
+        }));
+    }
+
+    /**
+     * Writes the line of one histogram.
+     */
+    private static void writeLine(PrintWriter writer, String name,
+                                  LatencyHistogram histogram)
+    {
+        writer.printf("%-36s %10d %10.1f %10.1f %10.1f %10.1f%n", name,
+                histogram.getCount(),
+                histogram.getPercentile(50) / NANOS_IN_MICRO,
+                histogram.getPercentile(99) / NANOS_IN_MICRO,
+                histogram.getPercentile(99.9) / NANOS_IN_MICRO,
+                histogram.getMax() / NANOS_IN_MICRO);
+    }
+}
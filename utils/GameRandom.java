@@ -0,0 +1,89 @@
+package bricker.utils;
+
+import java.util.SplittableRandom;
+
+/**
+ * The single source of randomness of a game. One seed is split into
+ * independent deterministic streams, so drawing more numbers from one stream
+ * never shifts another: the brick layout stays the same no matter how the
+ * game is played, and the same seed with the same inputs replays the same
+ * game.
+ * <ul>
+ *   <li>layout - the collision strategy picked for each brick;</li>
+ *   <li>spawns - the directions of new balls and pucks;</li>
+ *   <li>strategies - the strategies picked while playing.</li>
+ * </ul>
+ * @author Elyashiv Eitan
+ */
+public class GameRandom
+{
+    private final long seed;
+    private final SplittableRandom layout;
+    private final SplittableRandom spawns;
+    private final SplittableRandom strategies;
+
+    /**
+     * Constructs the streams of a game.
+     *
+     * @param seed The seed every stream is derived from.
+     */
+    public GameRandom(long seed)
+    {
+        this.seed = seed;
+        SplittableRandom root = new SplittableRandom(seed);
+        this.layout = root.split();
+        this.spawns = root.split();
+        this.strategies = root.split();
+    }
+
+    /**
+     * @return A seed that differs between runs, for games started without one.
+     */
+    public static long randomSeed()
+    {
+        return new SplittableRandom().nextLong();
+    }
+
+    /**
+     * Parses a seed given on the command line.
+     *
+     * @param seed A decimal seed, or null for a random one.
+     * @return The parsed seed.
+     */
+    public static long parseSeed(String seed)
+    {
+        return seed == null ? randomSeed() : Long.parseLong(seed);
+    }
+
+    /**
+     * @return The seed every stream was derived from.
+     */
+    public long getSeed()
+    {
+        return this.seed;
+    }
+
+    /**
+     * @return The stream used to lay out the bricks.
+     */
+    public SplittableRandom layout()
+    {
+        return this.layout;
+    }
+
+    /**
+     * @return The stream used for the directions of new balls and pucks.
+     */
+    public SplittableRandom spawns()
+    {
+        return this.spawns;
+    }
+
+    /**
+     * @return The stream used to pick strategies during play.
+     */
+    public SplittableRandom strategies()
+    {
+        return this.strategies;
+    }
+}
@@ -0,0 +1,133 @@
+package bricker.utils;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size histogram of durations in nanoseconds, with log-linear buckets
+ * in the style of HdrHistogram: every power of two is split into 16 linear
+ * buckets, so any recorded value is reported within about 6% of its true
+ * value, from 1 ns up to the largest long. Recording is a couple of bit
+ * operations and an array increment, with no allocation.
+ * @author Elyashiv Eitan
+ */
+public class LatencyHistogram
+{
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_LIMIT = SUB_BUCKETS * 2;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) *
+            SUB_BUCKETS + SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long totalCount;
+    private long max;
+    private long sum;
+
+    /**
+     * Records a duration.
+     *
+     * @param nanos The duration in nanoseconds. Negative values count as 0.
+     */
+    public void record(long nanos)
+    {
+        long value = Math.max(0, nanos);
+        this.counts[bucketOf(value)]++;
+        this.totalCount++;
+        this.sum += value;
+        if (value > this.max)
+        {
+            this.max = value;
+        }
+    }
+
+    /**
+     * @return The number of recorded durations.
+     */
+    public long getCount()
+    {
+        return this.totalCount;
+    }
+
+    /**
+     * @return The largest recorded duration, exactly.
+     */
+    public long getMax()
+    {
+        return this.max;
+    }
+
+    /**
+     * @return The mean recorded duration, or 0 if nothing was recorded.
+     */
+    public double getMean()
+    {
+        return this.totalCount == 0 ? 0 : this.sum / (double) this.totalCount;
+    }
+
+    /**
+     * Returns the duration below which the given share of the recorded
+     * durations fall, rounded up to the end of its bucket.
+     *
+     * @param percentile A percentile in [0, 100].
+     * @return The duration in nanoseconds, or 0 if nothing was recorded.
+     */
+    public long getPercentile(double percentile)
+    {
+        if (this.totalCount == 0)
+        {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 *
+                this.totalCount));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++)
+        {
+            seen += this.counts[bucket];
+            if (seen >= rank)
+            {
+                return Math.min(this.max, bucketEnd(bucket));
+            }
+        }
+        return this.max;
+    }
+
+    /**
+     * Forgets every recorded duration.
+     */
+    public void reset()
+    {
+        Arrays.fill(this.counts, 0);
+        this.totalCount = 0;
+        this.max = 0;
+        this.sum = 0;
+    }
+
+    /**
+     * @return The bucket of a non-negative value.
+     */
+    private static int bucketOf(long value)
+    {
+        if (value < LINEAR_LIMIT)
+        {
+            return (int) value;
+        }
+        int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) -
+                SUB_BUCKET_BITS;
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    /**
+     * @return The largest value that falls in a bucket.
+     */
+    private static long bucketEnd(int bucket)
+    {
+        if (bucket < LINEAR_LIMIT)
+        {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long subBucket = bucket - (long) shift * SUB_BUCKETS;
+        long end = ((subBucket + 1) << shift) - 1;
+        return end < 0 ? Long.MAX_VALUE : end;
+    }
+}
@@ -0,0 +1,24 @@
+package bricker.utils;
+
+/**
+ * The lifecycle of an object tracked by a {@link LiveObjectRegistry}.
+ * @author Elyashiv Eitan
+ */
+public enum LifecycleState
+{
+    /**
+     * The object is in the game and is updated every frame.
+     */
+    ACTIVE,
+
+    /**
+     * The object was taken out of the game during the current frame. It is
+     * not reused before the next frame, so the engine can finish with it.
+     */
+    REMOVED,
+
+    /**
+     * The object is back in its pool (or was never used) and can be re-armed.
+     */
+    RECYCLED
+}
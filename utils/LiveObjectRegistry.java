@@ -0,0 +1,181 @@
+package bricker.utils;
+
+/**
+ * Keeps the objects of one kind (pucks, falling hearts) that are currently in
+ * the game, in a dense array. Removal swaps the last live object into the
+ * freed slot, so both adding and removing are O(1) and iterating costs
+ * O(live objects), no matter how many objects were created over a session.
+ *
+ * Removed objects go through the {@link LifecycleState#REMOVED} state for the
+ * rest of the frame and are only handed back to the pool by
+ * {@link #recycleRemoved()}, so an object is never re-armed while the engine
+ * may still hold it from the frame it was removed in.
+ * @param <T> The type of the tracked objects.
+ * @author Elyashiv Eitan
+ */
+public class LiveObjectRegistry<T extends Recyclable>
+{
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final ObjectPool<T> pool;
+    private Object[] liveObjects = new Object[INITIAL_CAPACITY];
+    private int liveCounter;
+    private Object[] removedObjects = new Object[INITIAL_CAPACITY];
+    private int removedCounter;
+
+    /**
+     * Constructs an empty registry.
+     *
+     * @param pool The pool objects are taken from and recycled into.
+     */
+    public LiveObjectRegistry(ObjectPool<T> pool)
+    {
+        this.pool = pool;
+    }
+
+    /**
+     * @return The pool objects are taken from and recycled into.
+     */
+    public ObjectPool<T> getPool()
+    {
+        return this.pool;
+    }
+
+    /**
+     * Takes a free object from the pool. The caller re-arms it and then
+     * {@link #add(Recyclable) adds} it.
+     *
+     * @return A free object.
+     */
+    public T acquire()
+    {
+        return this.pool.acquire();
+    }
+
+    /**
+     * Marks an object as active and tracks it.
+     *
+     * @param object An object that was just added to the game.
+     */
+    public void add(T object)
+    {
+        if (this.liveCounter == this.liveObjects.length)
+        {
+            this.liveObjects = grow(this.liveObjects);
+        }
+        object.setRegistryIndex(this.liveCounter);
+        object.setLifecycleState(LifecycleState.ACTIVE);
+        this.liveObjects[this.liveCounter++] = object;
+    }
+
+    /**
+     * Makes room for more live objects at once.
+     *
+     * @param extraObjects The number of objects about to be added.
+     */
+    public void ensureCapacity(int extraObjects)
+    {
+        int capacity = this.liveObjects.length;
+        while (this.liveCounter + extraObjects > capacity)
+        {
+            capacity *= 2;
+        }
+        if (capacity != this.liveObjects.length)
+        {
+            Object[] grown = new Object[capacity];
+            System.arraycopy(this.liveObjects, 0, grown, 0, this.liveCounter);
+            this.liveObjects = grown;
+        }
+    }
+
+    /**
+     * Stops tracking an active object. The object is recycled on the next
+     * call to {@link #recycleRemoved()}.
+     *
+     * @param object The object to remove.
+     * @return True if the object was active, false if it was already removed.
+     */
+    @SuppressWarnings("unchecked")
+    public boolean remove(T object)
+    {
+        if (object.getLifecycleState() != LifecycleState.ACTIVE)
+        {
+            return false;
+        }
+        int index = object.getRegistryIndex();
+        T last = (T) this.liveObjects[--this.liveCounter];
+        this.liveObjects[index] = last;
+        last.setRegistryIndex(index);
+        this.liveObjects[this.liveCounter] = null;
+
+        object.setLifecycleState(LifecycleState.REMOVED);
+        if (this.removedCounter == this.removedObjects.length)
+        {
+            this.removedObjects = grow(this.removedObjects);
+        }
+        this.removedObjects[this.removedCounter++] = object;
+        return true;
+    }
+
+    /**
+     * Hands every object removed since the last call back to the pool.
+     * Call once per frame, before anything can be spawned.
+     */
+    @SuppressWarnings("unchecked")
+    public void recycleRemoved()
+    {
+        for (int i = 0; i < this.removedCounter; i++)
+        {
+            T object = (T) this.removedObjects[i];
+            this.removedObjects[i] = null;
+            object.setLifecycleState(LifecycleState.RECYCLED);
+            this.pool.release(object);
+        }
+        this.removedCounter = 0;
+    }
+
+    /**
+     * Recycles every tracked object, live or removed. Used when the game is
+     * reset and all of them leave the game at once.
+     */
+    @SuppressWarnings("unchecked")
+    public void recycleAll()
+    {
+        while (this.liveCounter > 0)
+        {
+            remove((T) this.liveObjects[this.liveCounter - 1]);
+        }
+        recycleRemoved();
+    }
+
+    /**
+     * @return The number of live objects.
+     */
+    public int size()
+    {
+        return this.liveCounter;
+    }
+
+    /**
+     * Returns a live object. Iterating from the last index down to 0 stays
+     * valid while objects are removed.
+     *
+     * @param index A slot in [0, size()).
+     * @return The live object in the slot.
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int index)
+    {
+        return (T) this.liveObjects[index];
+    }
+
+    /**
+     * Doubles the length of an array.
+     */
+    private static Object[] grow(Object[] array)
+    {
+        Object[] grown = new Object[array.length * 2];
+        System.arraycopy(array, 0, grown, 0, array.length);
+        return grown;
+    }
+}
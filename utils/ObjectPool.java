@@ -0,0 +1,139 @@
+package bricker.utils;
+
+import java.util.function.Supplier;
+
+/**
+ * A bounded pool of reusable objects. Objects are taken with
+ * {@link #acquire()} and handed back with {@link #release(Object)} instead of
+ * being left to the garbage collector, so short-lived game objects (pucks,
+ * falling hearts) do not churn the heap.
+ *
+ * The pool keeps counters of hits (an object was reused), misses (a new
+ * object had to be created) and evictions (a released object was dropped
+ * because the pool was full).
+ * @param <T> The type of the pooled objects.
+ * @author Elyashiv Eitan
+ */
+public class ObjectPool<T>
+{
+    private final Supplier<T> factory;
+    private final Object[] freeObjects;
+    private int freeCounter;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Constructs an empty pool.
+     *
+     * @param capacity The maximal number of free objects the pool keeps.
+     * @param factory  Creates a new object when the pool is empty.
+     */
+    public ObjectPool(int capacity, Supplier<T> factory)
+    {
+        this.factory = factory;
+        this.freeObjects = new Object[capacity];
+    }
+
+    /**
+     * Creates objects up front until the pool holds the given number of free
+     * objects, or is full.
+     *
+     * @param count The number of free objects wanted.
+     */
+    public void prewarm(int count)
+    {
+        int target = Math.min(count, this.freeObjects.length);
+        while (this.freeCounter < target)
+        {
+            this.freeObjects[this.freeCounter++] = this.factory.get();
+        }
+    }
+
+    /**
+     * Takes an object from the pool, creating one if the pool is empty.
+     * The caller is responsible for re-arming the object's state.
+     *
+     * @return A free object.
+     */
+    @SuppressWarnings("unchecked")
+    public T acquire()
+    {
+        if (this.freeCounter == 0)
+        {
+            this.misses++;
+            return this.factory.get();
+        }
+        this.hits++;
+        T object = (T) this.freeObjects[--this.freeCounter];
+        this.freeObjects[this.freeCounter] = null;
+        return object;
+    }
+
+    /**
+     * Hands an object back to the pool. If the pool is full the object is
+     * dropped and counted as an eviction.
+     *
+     * @param object An object that is no longer used by the game.
+     */
+    public void release(T object)
+    {
+        if (this.freeCounter == this.freeObjects.length)
+        {
+            this.evictions++;
+            return;
+        }
+        this.freeObjects[this.freeCounter++] = object;
+    }
+
+    /**
+     * @return The maximal number of free objects the pool keeps.
+     */
+    public int getCapacity()
+    {
+        return this.freeObjects.length;
+    }
+
+    /**
+     * @return The number of free objects currently in the pool.
+     */
+    public int getFreeCounter()
+    {
+        return this.freeCounter;
+    }
+
+    /**
+     * @return The number of acquisitions served by a pooled object.
+     */
+    public long getHits()
+    {
+        return this.hits;
+    }
+
+    /**
+     * @return The number of acquisitions that had to create a new object.
+     */
+    public long getMisses()
+    {
+        return this.misses;
+    }
+
+    /**
+     * @return The number of released objects dropped because the pool was full.
+     */
+    public long getEvictions()
+    {
+        return this.evictions;
+    }
+
+    /**
+     * @return A one-line summary of the pool counters.
+     */
+    @Override
+    public String toString()
+    {
+        return String.format("capacity=%d free=%d hits=%d misses=%d " +
+                        "evictions=%d", getCapacity(), this.freeCounter,
+                this.hits, this.misses, this.evictions);
+    }
+}
@@ -0,0 +1,31 @@
+package bricker.utils;
+
+/**
+ * An object that can be tracked by a {@link LiveObjectRegistry}. The registry
+ * stores the object's slot and lifecycle state on the object itself, which
+ * is what makes its removals O(1).
+ * @author Elyashiv Eitan
+ */
+public interface Recyclable
+{
+    /**
+     * @return The object's slot in its registry, meaningful only while the
+     * object is active.
+     */
+    int getRegistryIndex();
+
+    /**
+     * @param registryIndex The object's new slot in its registry.
+     */
+    void setRegistryIndex(int registryIndex);
+
+    /**
+     * @return The object's lifecycle state.
+     */
+    LifecycleState getLifecycleState();
+
+    /**
+     * @param lifecycleState The object's new lifecycle state.
+     */
+    void setLifecycleState(LifecycleState lifecycleState);
+}
@@ -0,0 +1,200 @@
+package bricker.utils;
+
+import danogl.gui.Sound;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Plays sounds on behalf of the game loop, on a thread of its own.
+ *
+ * A request from the game only bumps a counter and never blocks. Every mixing
+ * window (a fixed number of milliseconds) the mixer thread plays each
+ * requested sound once, no matter how many times it was requested in the
+ * window, as long as one of its fixed number of voices is free. A voice is
+ * held for a fixed duration after a sound starts, standing in for the length
+ * of the clip; a sound that finds no free voice is dropped.
+ *
+ * danogl's {@link Sound} cannot change its volume, so a coalesced burst is
+ * played at normal volume; the number of requests behind each play is kept
+ * in the counters instead.
+ * @author Elyashiv Eitan
+ */
+public class SoundMixer
+{
+    private static final String THREAD_NAME = "sound-mixer";
+    private static final long NANOS_IN_MILLI = 1_000_000;
+
+    private final int voiceCounter;
+    private final long windowMillis;
+    private final long voiceMillis;
+    private final long[] voiceEnds;
+    private final Map<Sound, AtomicInteger> pendingRequests =
+            new ConcurrentHashMap<>();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong plays = new AtomicLong();
+    private final AtomicLong drops = new AtomicLong();
+    private Thread mixerThread;
+
+    /**
+     * Constructs a mixer. Its thread starts on the first request.
+     *
+     * @param voiceCounter The maximal number of sounds playing at once.
+     * @param windowMillis The length of a mixing window, in milliseconds.
+     * @param voiceMillis  How long a voice is held after a sound starts, in
+     *                     milliseconds.
+     */
+    public SoundMixer(int voiceCounter, long windowMillis, long voiceMillis)
+    {
+        this.voiceCounter = voiceCounter;
+        this.windowMillis = windowMillis;
+        this.voiceMillis = voiceMillis;
+        this.voiceEnds = new long[voiceCounter];
+    }
+
+    /**
+     * Requests a sound to be played in the current mixing window.
+     *
+     * @param sound The sound to play. Ignored if null.
+     */
+    public void play(Sound sound)
+    {
+        play(sound, 1);
+    }
+
+    /**
+     * Requests a sound to be played in the current mixing window, on behalf
+     * of several events at once.
+     *
+     * @param sound The sound to play. Ignored if null.
+     * @param count The number of events, e.g. bounces, asking for the sound.
+     */
+    public void play(Sound sound, int count)
+    {
+        if (sound == null || count <= 0)
+        {
+            return;
+        }
+        AtomicInteger pending = this.pendingRequests.get(sound);
+        if (pending == null)
+        {
+            pending = this.pendingRequests.computeIfAbsent(sound,
+                    key -> new AtomicInteger());
+            startMixerThread();
+        }
+        pending.addAndGet(count);
+        this.requests.addAndGet(count);
+    }
+
+    /**
+     * @return The number of sound requests received.
+     */
+    public long getRequests()
+    {
+        return this.requests.get();
+    }
+
+    /**
+     * @return The number of sounds actually played.
+     */
+    public long getPlays()
+    {
+        return this.plays.get();
+    }
+
+    /**
+     * @return The number of windows in which a sound was dropped because every
+     * voice was busy.
+     */
+    public long getDrops()
+    {
+        return this.drops.get();
+    }
+
+    /**
+     * @return The maximal number of sounds playing at once.
+     */
+    public int getVoiceCounter()
+    {
+        return this.voiceCounter;
+    }
+
+    /**
+     * @return A one-line summary of the mixer counters.
+     */
+    @Override
+    public String toString()
+    {
+        return String.format("voices=%d requests=%d plays=%d drops=%d",
+                this.voiceCounter, getRequests(), getPlays(), getDrops());
+    }
+
+    /**
+     * Plays the sounds requested since the last window. Called by the mixer
+     * thread once per window.
+     */
+    private void mix(long nowMillis)
+    {
+        for (Map.Entry<Sound, AtomicInteger> entry :
+                this.pendingRequests.entrySet())
+        {
+            if (entry.getValue().getAndSet(0) == 0)
+            {
+                continue;
+            }
+            int voice = freeVoice(nowMillis);
+            if (voice < 0)
+            {
+                this.drops.incrementAndGet();
+                continue;
+            }
+            this.voiceEnds[voice] = nowMillis + this.voiceMillis;
+            this.plays.incrementAndGet();
+            entry.getKey().play();
+        }
+    }
+
+    /**
+     * @return The index of a voice that is not playing, or -1 if all are.
+     */
+    private int freeVoice(long nowMillis)
+    {
+        for (int i = 0; i < this.voiceCounter; i++)
+        {
+            if (this.voiceEnds[i] <= nowMillis)
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Starts the mixer thread, unless it is already running.
+     */
+    private synchronized void startMixerThread()
+    {
+        if (this.mixerThread != null)
+        {
+            return;
+        }
+        this.mixerThread = new Thread(() ->
+        {
+            while (!Thread.currentThread().isInterrupted())
+            {
+                try
+                {
+                    Thread.sleep(this.windowMillis);
+                }
+                catch (InterruptedException exception)
+                {
+                    return;
+                }
+                mix(System.nanoTime() / NANOS_IN_MILLI);
+            }
+        }, THREAD_NAME);
+        this.mixerThread.setDaemon(true);
+        this.mixerThread.start();
+    }
+}
@@ -0,0 +1,67 @@
+package bricker.utils;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+
+/**
+ * Allocation-free vector helpers on primitive components, for code that runs
+ * every frame.
+ * @author Elyashiv Eitan
+ */
+public final class VectorMath
+{
+    private VectorMath()
+    {
+    }
+
+    /**
+     * Returns the horizontal center of a game object without allocating,
+     * unlike {@code getCenter().x()}.
+     *
+     * @param gameObject The game object.
+     * @return The x coordinate of its center.
+     */
+    public static float centerX(GameObject gameObject)
+    {
+        return gameObject.getTopLeftCorner().x() +
+                gameObject.getDimensions().x() / 2;
+    }
+
+    /**
+     * Returns the vertical center of a game object without allocating,
+     * unlike {@code getCenter().y()}.
+     *
+     * @param gameObject The game object.
+     * @return The y coordinate of its center.
+     */
+    public static float centerY(GameObject gameObject)
+    {
+        return gameObject.getTopLeftCorner().y() +
+                gameObject.getDimensions().y() / 2;
+    }
+
+    /**
+     * Builds the four diagonal velocities (+-speed, +-speed), indexed by
+     * {@link #diagonalIndex(boolean, boolean)}, so they can be reused instead
+     * of allocated.
+     *
+     * @param speed The speed along each axis.
+     * @return The four diagonal velocities.
+     */
+    public static Vector2[] diagonals(float speed)
+    {
+        return new Vector2[]{new Vector2(speed, speed),
+                new Vector2(-speed, speed), new Vector2(speed, -speed),
+                new Vector2(-speed, -speed)};
+    }
+
+    /**
+     * @param flipX True for a negative x component.
+     * @param flipY True for a negative y component.
+     * @return The index of the matching velocity in {@link #diagonals(float)}.
+     */
+    public static int diagonalIndex(boolean flipX, boolean flipY)
+    {
+        return (flipX ? 1 : 0) + (flipY ? 2 : 0);
+    }
+}